@@ -0,0 +1,153 @@
+import utils.FileUtils;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lint for the validation hot paths.
+ * Fails when the lexer, parser, AST, semantic, validator, error, profiling or
+ * utility sources call a String method that compiles its argument as a regular
+ * expression on every call ({@code replaceAll}, {@code replaceFirst},
+ * {@code split}, {@code matches}) with a literal pattern. Such calls run once
+ * per node or token; use offset-based helpers such as
+ * {@link utils.StringLiterals} or a precompiled {@link java.util.regex.Pattern}.
+ * Comments are ignored; the command-line classes are not hot paths.
+ * 
+ * Usage: java HotPathLint [source directory]
+ * 
+ * @author eduardo
+ */
+public class HotPathLint {
+    private static final String[] HOT_PATH_PACKAGES = {
+        "lexer", "parser", "ast", "semantic", "validators", "errors", "profiling", "utils"
+    };
+    
+    private static final String[] REGEX_CALLS = {
+        ".replaceAll(\"", ".replaceFirst(\"", ".split(\"", ".matches(\""
+    };
+    
+    /**
+     * Main method to run the lint.
+     * 
+     * @param args Command line arguments (optional: source directory, "src" by default)
+     */
+    public static void main(String[] args) throws IOException {
+        File sourceDir = new File(args.length > 0 ? args[0] : "src");
+        
+        List<File> files = new ArrayList<>();
+        for (String packageName : HOT_PATH_PACKAGES) {
+            findJavaFiles(new File(sourceDir, packageName), files);
+        }
+        if (files.isEmpty()) {
+            System.err.println("No Java sources found in " + sourceDir);
+            System.exit(1);
+        }
+        
+        int violations = 0;
+        for (File file : files) {
+            violations += check(file);
+        }
+        
+        System.out.println("Files checked: " + files.size());
+        System.out.println("Regex calls in hot paths: " + violations);
+        if (violations > 0) {
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Reports the regex calls of one source file.
+     * 
+     * @return Number of violations found
+     */
+    private static int check(File file) throws IOException {
+        String[] lines = FileUtils.readFile(file.getPath()).split("\n", -1);
+        int violations = 0;
+        boolean inComment = false;
+        for (int i = 0; i < lines.length; i++) {
+            String code = stripComments(lines[i], inComment);
+            inComment = endsInComment(lines[i], inComment);
+            for (String call : REGEX_CALLS) {
+                if (code.contains(call)) {
+                    System.out.println(file.getPath() + ":" + (i + 1) + ": "
+                                       + call.substring(1, call.length() - 2) + " with a regex literal: "
+                                       + lines[i].trim());
+                    violations++;
+                }
+            }
+        }
+        return violations;
+    }
+    
+    /**
+     * Gets the code of a line without its comments.
+     * String literals containing comment markers are not expected in these sources.
+     */
+    private static String stripComments(String line, boolean inComment) {
+        StringBuilder code = new StringBuilder(line.length());
+        int i = 0;
+        while (i < line.length()) {
+            if (inComment) {
+                int end = line.indexOf("*/", i);
+                if (end < 0) {
+                    break;
+                }
+                inComment = false;
+                i = end + 2;
+            } else if (line.startsWith("//", i)) {
+                break;
+            } else if (line.startsWith("/*", i)) {
+                inComment = true;
+                i += 2;
+            } else {
+                code.append(line.charAt(i));
+                i++;
+            }
+        }
+        return code.toString();
+    }
+    
+    /**
+     * Checks if a block comment is still open at the end of a line.
+     */
+    private static boolean endsInComment(String line, boolean inComment) {
+        int i = 0;
+        while (i < line.length()) {
+            if (inComment) {
+                int end = line.indexOf("*/", i);
+                if (end < 0) {
+                    return true;
+                }
+                inComment = false;
+                i = end + 2;
+            } else if (line.startsWith("//", i)) {
+                return false;
+            } else if (line.startsWith("/*", i)) {
+                inComment = true;
+                i += 2;
+            } else {
+                i++;
+            }
+        }
+        return inComment;
+    }
+    
+    /**
+     * Collects the Java files of a directory tree.
+     */
+    private static void findJavaFiles(File dir, List<File> files) {
+        File[] entries = dir.listFiles();
+        if (entries == null) {
+            return;
+        }
+        java.util.Arrays.sort(entries);
+        for (File entry : entries) {
+            if (entry.isDirectory()) {
+                findJavaFiles(entry, files);
+            } else if (entry.getName().endsWith(".java")) {
+                files.add(entry);
+            }
+        }
+    }
+}
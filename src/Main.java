@@ -1,5 +1,22 @@
+import errors.ReportFormat;
+import parser.ParseMode;
+import profiling.ValidationProfile;
 import utils.FileUtils;
+import validators.Artifact;
+import validators.ValidationMode;
+import validators.ValidatorProvider;
+import validators.ValidatorRegistry;
+import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 /**
  * Main entry point for the HTML/JavaScript validator.
@@ -12,17 +29,91 @@ public class Main {
     /**
      * Main method - entry point of the program.
      * 
-     * @param args Command line arguments. Expects one argument: path to HTML file
+     * @param args Command line arguments. Expects the path to an HTML file, optionally
+     *             preceded or followed by options:
+     *             --parallel-parse         Parse script blocks in parallel
+     *             --rules=a,b              Run only the listed rules
+     *             --parallel-validate      Run validators in parallel on the common pool
+     *             --validator-threads=N    Run validators in parallel on N threads
+     *             --max-errors=N           Stop after N errors
+     *             --fail-fast              Stop at the first error and exit with status 2
+     *             --list-rules             List the available rules and exit
+     *             --file-timeout=MS        Stop validating a file after MS milliseconds
+     *             --validator-timeout=MS   Stop each rule after MS milliseconds
+     *             --profile                Print the time and allocation of every stage
+     *             --project                Validate every HTML file of a directory as one project
+     *             --format=a,b             Write the report in these formats: txt, jsonl, sarif
      */
     public static void main(String[] args) {
+        String inputFilePath = null;
+        ParseMode parseMode = ParseMode.SEQUENTIAL;
+        Set<String> enabledRules = null;
+        ValidationMode validationMode = ValidationMode.FUSED;
+        int validatorThreads = 0; // 0 means the common pool
+        int maxErrors = 0; // 0 means no limit
+        boolean failFast = false;
+        boolean profiling = false;
+        int fileTimeout = 0; // 0 means no time budget
+        int validatorTimeout = 0;
+        boolean project = false;
+        Set<ReportFormat> reportFormats = EnumSet.of(ReportFormat.TXT);
+        
+        for (String arg : args) {
+            if (arg.equals("--parallel-parse")) {
+                parseMode = ParseMode.PARALLEL_SCRIPTS;
+            } else if (arg.equals("--parallel-validate")) {
+                validationMode = ValidationMode.PARALLEL;
+            } else if (arg.startsWith("--validator-threads=")) {
+                validationMode = ValidationMode.PARALLEL;
+                validatorThreads = parsePositiveInt(arg, "--validator-threads=");
+            } else if (arg.startsWith("--max-errors=")) {
+                maxErrors = parsePositiveInt(arg, "--max-errors=");
+            } else if (arg.equals("--fail-fast")) {
+                failFast = true;
+            } else if (arg.startsWith("--file-timeout=")) {
+                fileTimeout = parsePositiveInt(arg, "--file-timeout=");
+            } else if (arg.startsWith("--validator-timeout=")) {
+                validatorTimeout = parsePositiveInt(arg, "--validator-timeout=");
+            } else if (arg.equals("--project")) {
+                project = true;
+            } else if (arg.startsWith("--format=")) {
+                reportFormats = parseReportFormats(arg.substring("--format=".length()));
+            } else if (arg.equals("--profile")) {
+                profiling = true;
+            } else if (arg.equals("--list-rules")) {
+                printRules();
+                return;
+            } else if (arg.startsWith("--rules=")) {
+                enabledRules = new HashSet<>(Arrays.asList(arg.substring("--rules=".length()).split(",")));
+            } else if (arg.startsWith("--")) {
+                System.out.println("Unknown option: " + arg);
+                printUsage();
+                System.exit(1);
+            } else if (inputFilePath == null) {
+                inputFilePath = arg;
+            }
+        }
+        
         // Check command line arguments
-        if (args.length < 1) {
-            System.out.println("Usage: java Main <input.html>");
-            System.out.println("Example: java Main test.html");
+        if (inputFilePath == null) {
+            printUsage();
             System.exit(1);
         }
         
-        String inputFilePath = args[0];
+        ExecutorService validatorPool = validatorThreads > 0 ? Executors.newFixedThreadPool(validatorThreads) : null;
+        Consumer<ValidatorEngine> engineOptions = engineOptions(parseMode, enabledRules, validationMode, validatorPool,
+                                                                failFast ? 1 : maxErrors, fileTimeout, 
+                                                                validatorTimeout, profiling, reportFormats);
+        if (project) {
+            try {
+                validateProject(new File(inputFilePath), engineOptions, profiling, failFast);
+            } finally {
+                if (validatorPool != null) {
+                    validatorPool.shutdown();
+                }
+            }
+            return;
+        }
         
         // Validate input file exists and has .html extension
         if (!inputFilePath.toLowerCase().endsWith(".html")) {
@@ -36,13 +127,17 @@ public class Main {
         try {
             // Create and run validator engine
             ValidatorEngine engine = new ValidatorEngine(inputFilePath, outputFilePath);
+            engineOptions.accept(engine);
             engine.validate();
             
             // Report results
             int errorCount = engine.getErrorCollector().getErrorCount();
             System.out.println("Validation complete!");
-            System.out.println("Errors found: " + errorCount);
-            System.out.println("Report generated: " + outputFilePath);
+            System.out.println("Errors found: " + errorCount
+                               + (engine.getErrorCollector().isLimitReached() ? " (error limit reached)" : ""));
+            for (ReportFormat format : reportFormats) {
+                System.out.println("Report generated: " + engine.getReportFilePath(format));
+            }
             
             if (errorCount > 0) {
                 System.out.println("\nErrors:");
@@ -51,6 +146,18 @@ public class Main {
                 }
             }
             
+            if (profiling) {
+                System.out.println("\nProfile:");
+                System.out.print(engine.getProfile().formatSummary());
+            }
+            
+            if (failFast && errorCount > 0) {
+                System.exit(2);
+            }
+            
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+            System.exit(1);
         } catch (IOException e) {
             System.err.println("Error reading or writing file: " + e.getMessage());
             e.printStackTrace();
@@ -59,6 +166,157 @@ public class Main {
             System.err.println("Unexpected error: " + e.getMessage());
             e.printStackTrace();
             System.exit(1);
+        } finally {
+            if (validatorPool != null) {
+                validatorPool.shutdown();
+            }
         }
     }
+    
+    /**
+     * Creates the callback that applies the command line options to an engine.
+     */
+    private static Consumer<ValidatorEngine> engineOptions(ParseMode parseMode, Set<String> enabledRules, 
+                                                           ValidationMode validationMode, Executor validatorPool,
+                                                           int maxErrors, int fileTimeout, int validatorTimeout, 
+                                                           boolean profiling, Set<ReportFormat> reportFormats) {
+        return engine -> {
+            engine.setParseMode(parseMode);
+            engine.setEnabledRules(enabledRules);
+            engine.setValidationMode(validationMode);
+            engine.setValidatorExecutor(validatorPool);
+            engine.setMaxErrors(maxErrors);
+            engine.setFileTimeout(fileTimeout);
+            engine.setValidatorTimeout(validatorTimeout);
+            engine.setProfiling(profiling);
+            engine.setReportFormats(reportFormats);
+        };
+    }
+    
+    /**
+     * Validates every HTML file of a directory as one project and prints a
+     * summary per file. Exits with status 1 on failure, and with status 2 in
+     * fail-fast mode if any file has errors.
+     */
+    private static void validateProject(File directory, Consumer<ValidatorEngine> engineOptions, 
+                                        boolean profiling, boolean failFast) {
+        if (!directory.isDirectory()) {
+            System.out.println("Error: --project expects a directory: " + directory);
+            System.exit(1);
+        }
+        
+        try {
+            ProjectEngine projectEngine = new ProjectEngine(directory);
+            projectEngine.setEngineOptions(engineOptions);
+            List<ValidatorEngine> engines = projectEngine.validate();
+            
+            int totalErrors = 0;
+            ValidationProfile profile = profiling ? new ValidationProfile() : null;
+            System.out.println("Project validation complete!");
+            System.out.println("Files validated: " + engines.size());
+            for (ValidatorEngine engine : engines) {
+                int errorCount = engine.getErrorCollector().getErrorCount();
+                totalErrors += errorCount;
+                System.out.println("  " + engine.getInputFilePath() + ": " + errorCount + " error(s)");
+                if (profile != null) {
+                    profile.addAll(engine.getProfile());
+                }
+            }
+            System.out.println("Errors found: " + totalErrors);
+            
+            if (profile != null) {
+                System.out.println("\nProfile (all files):");
+                System.out.print(profile.formatSummary());
+            }
+            
+            if (failFast && totalErrors > 0) {
+                System.exit(2);
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("Error reading or writing file: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Parses the positive integer value of a "--name=N" option, exiting on invalid input.
+     */
+    private static int parsePositiveInt(String arg, String prefix) {
+        try {
+            int value = Integer.parseInt(arg.substring(prefix.length()));
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        System.out.println("Invalid value for " + prefix.substring(0, prefix.length() - 1) + ": " + arg.substring(prefix.length()));
+        printUsage();
+        System.exit(1);
+        return 0;
+    }
+    
+    /**
+     * Parses the comma-separated value of --format, exiting on an unknown format.
+     */
+    private static Set<ReportFormat> parseReportFormats(String value) {
+        Set<ReportFormat> formats = EnumSet.noneOf(ReportFormat.class);
+        try {
+            for (String name : value.split(",")) {
+                formats.add(ReportFormat.fromName(name.trim()));
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+            printUsage();
+            System.exit(1);
+        }
+        return formats;
+    }
+    
+    /**
+     * Prints the available rules with their metadata, in reporting order.
+     */
+    private static void printRules() {
+        try {
+            for (ValidatorProvider provider : ValidatorRegistry.getDefault().getProviders()) {
+                StringBuilder artifacts = new StringBuilder();
+                for (Artifact<?> artifact : provider.getRequiredArtifacts()) {
+                    artifacts.append(artifacts.length() == 0 ? "" : ", ").append(artifact.getName());
+                }
+                System.out.println(String.format("  %-16s cost=%-7s %s", provider.getRuleId(), 
+                                                 provider.getCostClass(), artifacts));
+            }
+        } catch (IllegalStateException | java.util.ServiceConfigurationError e) {
+            System.out.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Prints command line usage.
+     */
+    private static void printUsage() {
+        System.out.println("Usage: java Main [options] <input.html>");
+        System.out.println("       java Main [options] --project <directory>");
+        System.out.println("Example: java Main test.html");
+        System.out.println("Options:");
+        System.out.println("  --parallel-parse         Parse <script> blocks in parallel");
+        System.out.println("  --rules=a,b              Run only the listed rules: identifier, constant, assignment,");
+        System.out.println("                           function, data-input, data-output, html-structure");
+        System.out.println("  --parallel-validate      Run validators in parallel on the common pool");
+        System.out.println("  --validator-threads=N    Run validators in parallel on N threads");
+        System.out.println("  --max-errors=N           Stop lexing, parsing and validating after N errors");
+        System.out.println("  --fail-fast              Stop at the first error and exit with status 2");
+        System.out.println("  --list-rules             List the available rules and exit");
+        System.out.println("  --file-timeout=MS        Stop validating the file after MS milliseconds");
+        System.out.println("  --validator-timeout=MS   Stop each rule after MS milliseconds, keeping its partial result");
+        System.out.println("  --profile                Print the time and allocation of every stage");
+        System.out.println("  --project                Validate every HTML file of a directory as one project,");
+        System.out.println("                           resolving element IDs declared in any of its files");
+        System.out.println("  --format=a,b             Write the report in these formats: txt (default), jsonl, sarif");
+    }
 }
@@ -0,0 +1,121 @@
+import lexer.Lexer;
+import parser.Parser;
+import utils.FileUtils;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Allocation-rate benchmark for the lexer and parser.
+ * Parses every HTML file in a directory repeatedly and reports the bytes
+ * allocated per parse, separating tokenization from parser state so changes
+ * to either stage can be measured on their own.
+ * 
+ * Usage: java ParserBenchmark [directory] [iterations]
+ * 
+ * @author eduardo
+ */
+public class ParserBenchmark {
+    private static final int WARMUP_ITERATIONS = 200;
+    
+    /**
+     * Main method to run the benchmark.
+     * 
+     * @param args Command line arguments (optional: directory, iterations)
+     */
+    public static void main(String[] args) throws IOException {
+        String directory = args.length > 0 ? args[0] : "test";
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        
+        com.sun.management.ThreadMXBean threadBean = getThreadBean();
+        if (threadBean == null) {
+            System.err.println("Thread allocation accounting is not supported by this JVM");
+            System.exit(1);
+        }
+        
+        File[] files = new File(directory).listFiles((dir, name) ->
+            name.toLowerCase().endsWith(".html"));
+        if (files == null || files.length == 0) {
+            System.err.println("No HTML files found in " + directory);
+            System.exit(1);
+        }
+        java.util.Arrays.sort(files);
+        
+        System.out.println("Iterations per file: " + iterations);
+        System.out.println(String.format("%-28s %14s %14s %14s %12s",
+                                         "File", "Lex B/op", "Parse B/op", "Parser B/op", "Parse us/op"));
+        
+        long totalLex = 0;
+        long totalParse = 0;
+        for (File file : files) {
+            String content = FileUtils.readFile(file.getAbsolutePath());
+            
+            // Warm up both paths so JIT-compiled code is measured
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                lex(content);
+                parse(content);
+            }
+            
+            long lexBytes = measureLex(threadBean, content, iterations);
+            
+            long start = System.nanoTime();
+            long parseBytes = measureParse(threadBean, content, iterations);
+            long elapsed = System.nanoTime() - start;
+            
+            totalLex += lexBytes;
+            totalParse += parseBytes;
+            System.out.println(String.format("%-28s %14d %14d %14d %12.1f",
+                                             truncate(file.getName(), 28), lexBytes, parseBytes,
+                                             parseBytes - lexBytes, elapsed / 1000.0 / iterations));
+        }
+        
+        System.out.println(String.format("%-28s %14d %14d %14d",
+                                         "Total", totalLex, totalParse, totalParse - totalLex));
+    }
+    
+    /**
+     * Measures bytes allocated per tokenization.
+     */
+    private static long measureLex(com.sun.management.ThreadMXBean threadBean, String content, int iterations) {
+        long before = threadBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            lex(content);
+        }
+        return (threadBean.getCurrentThreadAllocatedBytes() - before) / iterations;
+    }
+    
+    /**
+     * Measures bytes allocated per full parse (tokenization included).
+     */
+    private static long measureParse(com.sun.management.ThreadMXBean threadBean, String content, int iterations) {
+        long before = threadBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            parse(content);
+        }
+        return (threadBean.getCurrentThreadAllocatedBytes() - before) / iterations;
+    }
+    
+    private static int lex(String content) {
+        return new Lexer(content).tokenize().size();
+    }
+    
+    private static int parse(String content) {
+        return new Parser(content).parse().getChildren().size();
+    }
+    
+    private static com.sun.management.ThreadMXBean getThreadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+            if (threadBean.isThreadAllocatedMemorySupported()) {
+                threadBean.setThreadAllocatedMemoryEnabled(true);
+                return threadBean;
+            }
+        }
+        return null;
+    }
+    
+    private static String truncate(String name, int length) {
+        return name.length() <= length ? name : name.substring(0, length - 3) + "...";
+    }
+}
@@ -0,0 +1,171 @@
+import semantic.ProjectIndex;
+import utils.FileUtils;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Validates every HTML file of a directory as one project.
+ * Files are parsed first, in parallel; their element IDs and top-level
+ * functions and constants are gathered into one {@link ProjectIndex}, built
+ * once and shared read-only; then every file is validated in parallel,
+ * resolving element IDs against its own declarations and the project's.
+ * The ASTs of all files are kept in memory between the two phases.
+ * 
+ * @author eduardo
+ */
+public class ProjectEngine {
+    private final File directory;
+    private int threads;
+    private Consumer<ValidatorEngine> engineOptions;
+    private ProjectIndex projectIndex;
+    
+    /**
+     * Creates a project engine for a directory.
+     * 
+     * @param directory Root directory; HTML files in subdirectories are included
+     */
+    public ProjectEngine(File directory) {
+        this.directory = directory;
+        this.threads = Runtime.getRuntime().availableProcessors();
+        this.engineOptions = engine -> { };
+        this.projectIndex = ProjectIndex.EMPTY;
+    }
+    
+    /**
+     * Sets the number of files parsed and validated at the same time.
+     * 
+     * @param threads Number of worker threads (available processors by default)
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+    
+    /**
+     * Sets the options applied to the engine of every file (rules, modes, limits).
+     * 
+     * @param engineOptions Callback that configures a new engine
+     */
+    public void setEngineOptions(Consumer<ValidatorEngine> engineOptions) {
+        this.engineOptions = engineOptions;
+    }
+    
+    /**
+     * Validates every HTML file of the directory and writes their reports.
+     * 
+     * @return The engine of every file, in path order, with its errors
+     * @throws IOException If a file cannot be read or written
+     */
+    public List<ValidatorEngine> validate() throws IOException {
+        List<File> files = new ArrayList<>();
+        findHtmlFiles(directory, files);
+        
+        List<ValidatorEngine> engines = new ArrayList<>(files.size());
+        for (File file : files) {
+            String inputPath = file.getPath();
+            ValidatorEngine engine = new ValidatorEngine(inputPath, FileUtils.getOutputFilePath(inputPath));
+            engineOptions.accept(engine);
+            engines.add(engine);
+        }
+        
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, engines.size())));
+        try {
+            // Phase 1: parse every file and analyze its declarations
+            runAll(pool, engines, engine -> {
+                engine.parse();
+                engine.getSemanticModel();
+            });
+            
+            // Build the index in path order, so declaration order does not depend on scheduling
+            ProjectIndex.Builder builder = new ProjectIndex.Builder();
+            for (ValidatorEngine engine : engines) {
+                builder.addFile(engine.getInputFilePath(), engine.getElementIdIndex(), engine.getSemanticModel());
+            }
+            projectIndex = builder.build();
+            
+            // Phase 2: validate every file against the shared index
+            runAll(pool, engines, engine -> {
+                engine.setProjectIndex(projectIndex);
+                engine.validate();
+            });
+        } finally {
+            pool.shutdown();
+        }
+        return engines;
+    }
+    
+    /**
+     * Gets the index built by the last run.
+     * 
+     * @return The project index, or {@link ProjectIndex#EMPTY} before the first run
+     */
+    public ProjectIndex getProjectIndex() {
+        return projectIndex;
+    }
+    
+    /**
+     * Runs a step on every engine and waits for all of them.
+     * Rethrows the first failure, in path order.
+     */
+    private static void runAll(ExecutorService pool, List<ValidatorEngine> engines, EngineStep step) throws IOException {
+        List<Future<Void>> tasks = new ArrayList<>(engines.size());
+        for (ValidatorEngine engine : engines) {
+            tasks.add(pool.submit(() -> {
+                step.run(engine);
+                return null;
+            }));
+        }
+        for (Future<Void> task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while validating the project", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof java.lang.Error) {
+                    throw (java.lang.Error) cause;
+                }
+                throw new IOException(cause);
+            }
+        }
+    }
+    
+    /**
+     * Collects the HTML files of a directory tree, sorted by path.
+     */
+    private static void findHtmlFiles(File dir, List<File> files) {
+        File[] entries = dir.listFiles();
+        if (entries == null) {
+            return;
+        }
+        Arrays.sort(entries);
+        for (File entry : entries) {
+            if (entry.isDirectory()) {
+                findHtmlFiles(entry, files);
+            } else if (entry.getName().toLowerCase().endsWith(".html")) {
+                files.add(entry);
+            }
+        }
+    }
+    
+    /**
+     * One step of the per-file work.
+     */
+    private interface EngineStep {
+        void run(ValidatorEngine engine) throws IOException;
+    }
+}
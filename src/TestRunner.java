@@ -1,3 +1,4 @@
+import profiling.ValidationProfile;
 import utils.FileUtils;
 import java.io.File;
 import java.io.IOException;
@@ -13,10 +14,27 @@ public class TestRunner {
     /**
      * Main method to run tests.
      * 
-     * @param args Command line arguments (optional: test directory path)
+     * @param args Command line arguments (optional: test directory path, --profile
+     *             to print the time and allocation of every stage over all files,
+     *             --file-timeout=MS and --validator-timeout=MS to bound the time
+     *             spent on each file and each rule)
      */
     public static void main(String[] args) {
-        String testDir = args.length > 0 ? args[0] : "test";
+        String testDir = "test";
+        ValidationProfile profile = null;
+        long fileTimeout = 0;
+        long validatorTimeout = 0;
+        for (String arg : args) {
+            if (arg.equals("--profile")) {
+                profile = new ValidationProfile();
+            } else if (arg.startsWith("--file-timeout=")) {
+                fileTimeout = Long.parseLong(arg.substring("--file-timeout=".length()));
+            } else if (arg.startsWith("--validator-timeout=")) {
+                validatorTimeout = Long.parseLong(arg.substring("--validator-timeout=".length()));
+            } else {
+                testDir = arg;
+            }
+        }
         
         File testDirectory = new File(testDir);
         if (!testDirectory.exists() || !testDirectory.isDirectory()) {
@@ -45,7 +63,13 @@ public class TestRunner {
             
             try {
                 ValidatorEngine engine = new ValidatorEngine(inputPath, outputPath);
+                engine.setProfiling(profile != null);
+                engine.setFileTimeout(fileTimeout);
+                engine.setValidatorTimeout(validatorTimeout);
                 engine.validate();
+                if (profile != null) {
+                    profile.addAll(engine.getProfile());
+                }
                 
                 int errorCount = engine.getErrorCollector().getErrorCount();
                 System.out.println("  ✓ Completed - Errors found: " + errorCount);
@@ -77,6 +101,12 @@ public class TestRunner {
         System.out.println("  Passed: " + passed);
         System.out.println("  Failed: " + failed);
         System.out.println("  Total:  " + (passed + failed));
+        
+        if (profile != null) {
+            System.out.println();
+            System.out.println("Profile (all files):");
+            System.out.print(profile.formatSummary());
+        }
     }
 }
 
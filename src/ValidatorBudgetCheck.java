@@ -0,0 +1,109 @@
+import ast.html.DocumentNode;
+import ast.html.TagNode;
+import errors.ErrorCollector;
+import parser.Parser;
+import validators.Validator;
+import validators.ValidatorDispatcher;
+import java.util.Arrays;
+
+/**
+ * Regression check for per-rule time budgets in the fused validator walk.
+ * A slow rule that sleeps on every tag runs next to a fast rule that only
+ * counts tags; with a budget smaller than one slow visit, the slow rule must
+ * time out while the fast rule still sees every tag and reports no timeout,
+ * since the time spent in its neighbour is not charged to it.
+ * 
+ * Usage: java ValidatorBudgetCheck
+ * 
+ * @author eduardo
+ */
+public class ValidatorBudgetCheck {
+    private static final int TAG_COUNT = 20;
+    private static final long SLOW_VISIT_MILLIS = 20;
+    private static final long BUDGET_MILLIS = 15;
+    
+    /**
+     * Main method to run the check.
+     * 
+     * @param args Command line arguments (none)
+     */
+    public static void main(String[] args) {
+        StringBuilder html = new StringBuilder("<!DOCTYPE html>\n<html>\n<head></head>\n<body>\n");
+        for (int i = 0; i < TAG_COUNT; i++) {
+            html.append("<p></p>\n");
+        }
+        html.append("</body>\n</html>\n");
+        DocumentNode document = new Parser(html.toString()).parse();
+        
+        SlowRule slow = new SlowRule();
+        CountingRule fast = new CountingRule();
+        ValidatorDispatcher dispatcher = new ValidatorDispatcher(Arrays.asList(slow, fast));
+        dispatcher.setValidatorBudget(BUDGET_MILLIS);
+        ErrorCollector errorCollector = new ErrorCollector();
+        dispatcher.validate(document, errorCollector);
+        
+        int expectedTags = TAG_COUNT + 3; // html, head and body
+        boolean slowTimedOut = hasTimeout(errorCollector, slow.getRuleId());
+        boolean fastTimedOut = hasTimeout(errorCollector, fast.getRuleId());
+        System.out.println("Slow rule: " + slow.visits + " tag visits, timed out: " + slowTimedOut);
+        System.out.println("Fast rule: " + fast.visits + " of " + expectedTags + " tag visits, timed out: "
+                           + fastTimedOut);
+        
+        if (!slowTimedOut || fastTimedOut || fast.visits != expectedTags) {
+            System.out.println("FAILED: a rule was charged for time spent in another rule");
+            System.exit(1);
+        }
+        System.out.println("OK");
+    }
+    
+    /**
+     * Checks if a rule got a timeout diagnostic.
+     */
+    private static boolean hasTimeout(ErrorCollector errorCollector, String ruleId) {
+        for (errors.Error error : errorCollector.getErrors()) {
+            if ("TIMEOUT".equals(error.getErrorType()) && error.getDescription().contains("'" + ruleId + "'")) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Rule that spends longer than the whole budget on every tag.
+     */
+    private static final class SlowRule implements Validator {
+        private int visits;
+        
+        @Override
+        public String getRuleId() {
+            return "slow";
+        }
+        
+        @Override
+        public void visitTag(TagNode node, ErrorCollector errorCollector) {
+            visits++;
+            try {
+                Thread.sleep(SLOW_VISIT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    /**
+     * Rule that only counts the tags it is sent.
+     */
+    private static final class CountingRule implements Validator {
+        private int visits;
+        
+        @Override
+        public String getRuleId() {
+            return "counting";
+        }
+        
+        @Override
+        public void visitTag(TagNode node, ErrorCollector errorCollector) {
+            visits++;
+        }
+    }
+}
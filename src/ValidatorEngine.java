@@ -1,19 +1,43 @@
 import ast.html.DocumentNode;
+import ast.html.ElementIdIndex;
 import errors.ErrorCollector;
 import errors.ErrorReporter;
+import errors.ReportFormat;
+import errors.ReportSink;
+import parser.ParseMode;
 import parser.Parser;
-import validators.AssignmentValidator;
-import validators.ConstantValidator;
-import validators.DataInputValidator;
-import validators.DataOutputValidator;
-import validators.FunctionValidator;
-import validators.HtmlElementValidator;
-import validators.HtmlStructureValidator;
-import validators.IdentifierValidator;
+import parser.ParserProfile;
+import profiling.FileValidationEvent;
+import profiling.JfrEvents;
+import profiling.ProfileSpan;
+import profiling.ValidationProfile;
+import profiling.ValidatorRunEvent;
+import semantic.ProjectIndex;
+import semantic.SemanticAnalyzer;
+import semantic.SemanticModel;
+import validators.Artifact;
+import validators.ArtifactProducer;
+import validators.ArtifactStore;
+import validators.ProfilingValidator;
+import validators.TagPairingChecker;
 import validators.Validator;
+import validators.ValidationMode;
+import validators.ValidationScheduler;
+import validators.ValidatorDispatcher;
+import validators.ValidatorRegistry;
+import utils.CancellationToken;
+import utils.FileUtils;
+import utils.IdentifierRules;
+import utils.SourceText;
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Main orchestrator for the validation system.
@@ -27,6 +51,27 @@ public class ValidatorEngine {
     private final ErrorCollector errorCollector;
     private DocumentNode documentNode;
     private Parser parser;
+    private ParseMode parseMode;
+    private Set<String> enabledRules; // null means every rule is enabled
+    private ValidationMode validationMode;
+    private Executor validatorExecutor; // Executor for PARALLEL validation, null for the common pool
+    private int maxErrors; // 0 means no limit
+    private long fileTimeoutMillis; // 0 means no time budget
+    private long validatorTimeoutMillis; // 0 means no time budget
+    private TagPairingChecker tagPairingChecker; // Attached to the parser if a validator needs it
+    private boolean profiling;
+    private ValidationProfile profile; // Stage timings of the last run, null unless profiling
+    private ProjectIndex projectIndex; // Declarations of the other files of the project
+    private Set<ReportFormat> reportFormats;
+    
+    // State carried from parse() to validate()
+    private SourceText source; // Read once, reused by the report
+    private List<Validator> validators;
+    private boolean measureValidators;
+    private CancellationToken cancellation;
+    private long parseNanos;
+    private SemanticModel semanticModel; // Computed on first use
+    private FileValidationEvent event; // Null when no JFR recording may be active
     
     /**
      * Creates a new validator engine.
@@ -38,57 +83,462 @@ public class ValidatorEngine {
         this.inputFilePath = inputFilePath;
         this.outputFilePath = outputFilePath;
         this.errorCollector = new ErrorCollector();
+        this.parseMode = ParseMode.SEQUENTIAL;
+        this.validationMode = ValidationMode.FUSED;
+        this.projectIndex = ProjectIndex.EMPTY;
+        this.reportFormats = EnumSet.of(ReportFormat.TXT);
+    }
+    
+    /**
+     * Sets the parse mode used to build the AST.
+     * 
+     * @param parseMode The parse mode (SEQUENTIAL by default)
+     */
+    public void setParseMode(ParseMode parseMode) {
+        this.parseMode = parseMode;
+    }
+    
+    /**
+     * Sets how the validators are run.
+     * 
+     * @param validationMode The validation mode (FUSED by default)
+     */
+    public void setValidationMode(ValidationMode validationMode) {
+        this.validationMode = validationMode;
+    }
+    
+    /**
+     * Sets the executor that runs validators in PARALLEL mode.
+     * If not set, the common fork/join pool is used.
+     * 
+     * @param validatorExecutor Executor for validator tasks
+     */
+    public void setValidatorExecutor(Executor validatorExecutor) {
+        this.validatorExecutor = validatorExecutor;
+    }
+    
+    /**
+     * Stops lexing, parsing and validation once the given number of errors
+     * has been found. The report then lists only those errors.
+     * 
+     * @param maxErrors Maximum number of errors to report, or 0 for no limit
+     */
+    public void setMaxErrors(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+    
+    /**
+     * Limits the time spent on the file. Once it runs out, lexing, parsing and
+     * validation stop; the report keeps the errors found so far plus a
+     * timeout diagnostic.
+     * 
+     * @param timeoutMillis Budget in milliseconds, or 0 for no limit
+     */
+    public void setFileTimeout(long timeoutMillis) {
+        this.fileTimeoutMillis = timeoutMillis;
+    }
+    
+    /**
+     * Limits the time each validator may spend on the file. A validator that
+     * runs out stops with the errors found so far plus a timeout diagnostic;
+     * the other validators are not affected.
+     * 
+     * @param timeoutMillis Budget in milliseconds, or 0 for no limit
+     */
+    public void setValidatorTimeout(long timeoutMillis) {
+        this.validatorTimeoutMillis = timeoutMillis;
+    }
+    
+    /**
+     * Enables measuring the time and allocation of every stage
+     * (read, lex, parse, each artifact, each validator, report).
+     * 
+     * @param profiling true to record a profile, false otherwise (default)
+     */
+    public void setProfiling(boolean profiling) {
+        this.profiling = profiling;
+    }
+    
+    /**
+     * Gets the stage timings of the last run.
+     * 
+     * @return The profile, or null if profiling was not enabled
+     */
+    public ValidationProfile getProfile() {
+        return profile;
+    }
+    
+    /**
+     * Restricts validation to the given rules.
+     * The parser profile is chosen from the enabled rules: if none of them
+     * inspects JavaScript, script bodies are skipped while parsing.
+     * 
+     * @param ruleIds Rule identifiers to run, or null to run every rule
+     */
+    public void setEnabledRules(Set<String> ruleIds) {
+        this.enabledRules = ruleIds == null ? null : new HashSet<>(ruleIds);
+    }
+    
+    /**
+     * Resolves element IDs against the declarations of the other files of
+     * a project, in addition to this file's own.
+     * 
+     * @param projectIndex The shared project index ({@link ProjectIndex#EMPTY} by default)
+     */
+    public void setProjectIndex(ProjectIndex projectIndex) {
+        this.projectIndex = projectIndex;
+    }
+    
+    /**
+     * Sets the formats the report is written in. The machine-readable
+     * formats are written while validating, next to the .txt report.
+     * 
+     * @param reportFormats Formats to write (only TXT by default)
+     */
+    public void setReportFormats(Set<ReportFormat> reportFormats) {
+        this.reportFormats = EnumSet.copyOf(reportFormats);
+    }
+    
+    /**
+     * Gets the path of the report written in a format.
+     * 
+     * @param format The report format
+     * @return The output file path for TXT, and a path with the format's extension otherwise
+     */
+    public String getReportFilePath(ReportFormat format) {
+        if (format == ReportFormat.TXT) {
+            return outputFilePath;
+        }
+        return FileUtils.getOutputFilePath(inputFilePath, format.getExtension());
+    }
+    
+    /**
+     * Reads and parses the input file without validating it, so its
+     * declarations can be inspected first (e.g. to build a project index).
+     * {@link #validate()} then runs the validators on the parsed document.
+     * 
+     * @return The root document node of the AST
+     * @throws IOException If the file cannot be read
+     */
+    @SuppressWarnings("try")
+    public DocumentNode parse() throws IOException {
+        event = JfrEvents.isRecorderInitialized() ? new FileValidationEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        long startNanos = System.nanoTime();
+        profile = profiling ? new ValidationProfile() : null;
+        
+        // Step 1: Read input file, the only time it is read
+        try (ProfileSpan span = ValidationProfile.start(profile, "read")) {
+            source = SourceText.read(inputFilePath);
+        }
+        
+        // Step 2: Create the enabled validators, measuring each one when
+        // profiling or when a JFR recording wants validator events
+        validators = createValidators();
+        measureValidators = profile != null
+                            || (event != null && new ValidatorRunEvent().isEnabled());
+        if (measureValidators) {
+            validators.replaceAll(ProfilingValidator::new);
+        }
+        
+        // Every stage stops once the error limit is reached or the file's
+        // time budget runs out
+        cancellation = null;
+        if (maxErrors > 0 || fileTimeoutMillis > 0) {
+            cancellation = new CancellationToken();
+            if (fileTimeoutMillis > 0) {
+                cancellation.setDeadline(startNanos + fileTimeoutMillis * 1_000_000L);
+            }
+            if (maxErrors > 0) {
+                errorCollector.setErrorLimit(maxErrors, cancellation);
+            } else {
+                errorCollector.setCancellationToken(cancellation);
+            }
+        }
+        
+        // Step 3: Parse and build AST, skipping scripts if no validator needs them.
+        // The parser tokenizes the whole input when it is created
+        try (ProfileSpan span = ValidationProfile.start(profile, "lex")) {
+            parser = new Parser(source.getText(), cancellation);
+        }
+        parser.setParseMode(parseMode);
+        parser.setProfile(chooseParserProfile(validators));
+        tagPairingChecker = null;
+        if (requires(validators, Artifact.TAG_PAIRING)) {
+            // Tag pairing is checked on the parser's tag events, while parsing
+            tagPairingChecker = new TagPairingChecker(errorCollector.createBuffer());
+            parser.setTagEventListener(tagPairingChecker);
+        }
+        try (ProfileSpan span = ValidationProfile.start(profile, "parse")) {
+            documentNode = parser.parse();
+        }
+        parseNanos = System.nanoTime() - startNanos;
+        return documentNode;
     }
     
     /**
      * Runs the complete validation process.
+     * Parses the file first unless {@link #parse()} was already called.
      * 
      * @throws IOException If file I/O fails
      */
+    @SuppressWarnings("try")
     public void validate() throws IOException {
-        // Step 1: Read input file
-        String inputContent = utils.FileUtils.readFile(inputFilePath);
-        
-        // Step 2: Parse and build AST
-        parser = new Parser(inputContent);
-        documentNode = parser.parse();
+        if (documentNode == null) {
+            parse();
+        }
         
-        // Step 3: Collect HTML element IDs
-        HtmlElementValidator htmlElementValidator = new HtmlElementValidator();
-        List<String> htmlElementIds = htmlElementValidator.collectElementIds(documentNode);
+        // The file's time budget covers parsing and validation, not the time
+        // spent between them (e.g. waiting for the other files of a project)
+        if (fileTimeoutMillis > 0) {
+            cancellation.setDeadline(System.nanoTime() + fileTimeoutMillis * 1_000_000L - parseNanos);
+        }
         
-        // Step 4: Run all validators
-        List<Validator> validators = new ArrayList<>();
+        // Machine-readable reports receive every error as it is added
+        List<ReportSink> sinks = openReportSinks();
+        try {
+            // Step 4: Run all validators, in a single walk of the AST or as a
+            // dependency graph in parallel. Shared artifacts are computed on first use
+            if (!CancellationToken.isCancelled(cancellation)) {
+                validateDocument(validators);
+            } else if (tagPairingChecker != null) {
+                // Stopped while parsing: keep the tag pairing errors found so far
+                errorCollector.addAll(tagPairingChecker.getErrors());
+            }
+            if (measureValidators) {
+                for (Validator validator : validators) {
+                    ProfilingValidator measured = (ProfilingValidator) validator;
+                    if (profile != null) {
+                        measured.recordInto(profile);
+                    }
+                    measured.commitEvent(inputFilePath);
+                }
+            }
+            if (cancellation != null && cancellation.isTimedOut()) {
+                errorCollector.addError(documentNode.getLineNumber(), 
+                        String.format("Validation exceeded the file time budget of %d ms; results are partial", 
+                                      fileTimeoutMillis), 
+                        "TIMEOUT");
+            }
+        } finally {
+            closeReportSinks(sinks);
+        }
         
-        // Requirement #2: Identifier Validator
-        validators.add(new IdentifierValidator());
+        // Step 5: Generate error report (Requirement #1)
+        if (reportFormats.contains(ReportFormat.TXT)) {
+            try (ProfileSpan span = ValidationProfile.start(profile, "report")) {
+                ErrorReporter reporter = new ErrorReporter(source, outputFilePath, errorCollector);
+                reporter.generateReport();
+            }
+        }
         
-        // Requirement #3: Constant Validator
-        validators.add(new ConstantValidator());
+        if (event != null && event.shouldCommit()) {
+            event.filePath = inputFilePath;
+            event.byteSize = new File(inputFilePath).length();
+            event.tokenCount = parser.getTokenCount();
+            event.nodeCount = documentNode.getNodeCount();
+            event.errorCount = errorCollector.getErrorCount();
+            event.commit();
+        }
+    }
+    
+    /**
+     * Gets the semantic model of the parsed document, analyzing it on first use.
+     * 
+     * @return The semantic model
+     */
+    public synchronized SemanticModel getSemanticModel() {
+        if (semanticModel == null) {
+            semanticModel = new SemanticAnalyzer().analyze(documentNode);
+        }
+        return semanticModel;
+    }
+    
+    /**
+     * Opens the streaming reports of the selected formats and registers them
+     * with the error collector, after writing the errors already collected.
+     * 
+     * @return The open sinks
+     * @throws IOException If a report file cannot be created
+     */
+    private List<ReportSink> openReportSinks() throws IOException {
+        List<ReportSink> sinks = new ArrayList<>(reportFormats.size());
+        try {
+            for (ReportFormat format : reportFormats) {
+                if (format.isStreaming()) {
+                    ReportSink sink = format.openSink(inputFilePath, getReportFilePath(format));
+                    sinks.add(sink);
+                    for (errors.Error error : errorCollector.getErrors()) {
+                        sink.errorAdded(error);
+                    }
+                    errorCollector.addListener(sink);
+                }
+            }
+        } catch (IOException e) {
+            try {
+                closeReportSinks(sinks);
+            } catch (IOException closeFailure) {
+                e.addSuppressed(closeFailure);
+            }
+            throw e;
+        }
+        return sinks;
+    }
+    
+    /**
+     * Unregisters and closes the streaming reports, closing all of them
+     * even if one fails.
+     * 
+     * @param sinks The open sinks
+     * @throws IOException The first failure writing any of the reports
+     */
+    private void closeReportSinks(List<ReportSink> sinks) throws IOException {
+        IOException failure = null;
+        for (ReportSink sink : sinks) {
+            errorCollector.removeListener(sink);
+            try {
+                sink.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+    
+    /**
+     * Runs the validators on the parsed document.
+     * 
+     * @param validators The validators to run, in reporting order
+     */
+    @SuppressWarnings("try")
+    private void validateDocument(List<Validator> validators) {
+        try (ProfileSpan span = ValidationProfile.start(profile, "validation")) {
+            ArtifactStore artifacts = createArtifactStore();
+            if (validationMode == ValidationMode.PARALLEL && validators.size() > 1) {
+                Executor executor = validatorExecutor != null ? validatorExecutor : ForkJoinPool.commonPool();
+                ValidationScheduler scheduler = new ValidationScheduler(validators, artifacts);
+                scheduler.setValidatorBudget(validatorTimeoutMillis);
+                scheduler.validate(documentNode, errorCollector, executor);
+            } else {
+                for (Validator validator : validators) {
+                    validator.bind(artifacts);
+                }
+                ValidatorDispatcher dispatcher = new ValidatorDispatcher(validators);
+                dispatcher.setValidatorBudget(validatorTimeoutMillis);
+                dispatcher.validate(documentNode, errorCollector);
+            }
+        }
+    }
+    
+    /**
+     * Registers the producer of every shared artifact.
+     * Nothing is computed here; each artifact is produced the first time a
+     * validator that requires it asks for it.
+     * 
+     * @return Artifact store for the parsed document
+     */
+    private ArtifactStore createArtifactStore() {
+        ArtifactStore artifacts = new ArtifactStore(documentNode);
         
-        // Requirement #4: Assignment Validator
-        validators.add(new AssignmentValidator());
+        // Element IDs are indexed by the parser while it builds the AST
+        register(artifacts, Artifact.ELEMENT_ID_INDEX, (document, store) -> parser.getElementIdIndex());
         
-        // Requirement #5: Function Validator
-        validators.add(new FunctionValidator());
+        // Scopes, declarations and literal types, built in one pass over the AST
+        register(artifacts, Artifact.SEMANTIC_MODEL, (document, store) -> getSemanticModel());
         
-        // Requirement #6: Data Input Validator (needs HTML element IDs)
-        validators.add(new DataInputValidator(htmlElementIds));
+        // Declarations of the other files of the project, shared read-only
+        register(artifacts, Artifact.PROJECT_INDEX, (document, store) -> projectIndex);
         
-        // Requirement #7: Data Output Validator (needs HTML element IDs)
-        validators.add(new DataOutputValidator(htmlElementIds));
+        // Identifier verdicts, cached per name for this document
+        register(artifacts, Artifact.IDENTIFIER_RULES, (document, store) -> new IdentifierRules());
         
-        // Requirement #8: HTML Structure Validator
-        validators.add(new HtmlStructureValidator());
+        // Tag pairing errors, found by the checker attached to the parser
+        if (tagPairingChecker != null) {
+            register(artifacts, Artifact.TAG_PAIRING, (document, store) -> tagPairingChecker);
+        }
         
-        // Run all validators
+        return artifacts;
+    }
+    
+    /**
+     * Registers an artifact producer, measuring it as an "artifact:" stage
+     * when profiling.
+     * 
+     * @param artifacts The store to register in
+     * @param artifact The artifact key
+     * @param producer Producer of the artifact value
+     */
+    private <T> void register(ArtifactStore artifacts, Artifact<T> artifact, ArtifactProducer<T> producer) {
+        ValidationProfile stageProfile = profile;
+        if (stageProfile == null) {
+            artifacts.register(artifact, producer);
+            return;
+        }
+        String stageName = "artifact:" + artifact.getName();
+        artifacts.register(artifact, new ArtifactProducer<T>() {
+            @Override
+            public Set<Artifact<?>> getDependencies() {
+                return producer.getDependencies();
+            }
+            
+            @Override
+            @SuppressWarnings("try")
+            public T produce(DocumentNode document, ArtifactStore store) {
+                try (ProfileSpan span = ValidationProfile.start(stageProfile, stageName)) {
+                    return producer.produce(document, store);
+                }
+            }
+        });
+    }
+    
+    /**
+     * Creates the enabled validators in their reporting order.
+     * Only the enabled rules are instantiated; rules come from the built-in
+     * set and from providers found on the classpath.
+     * 
+     * @return List of validators to run
+     */
+    private List<Validator> createValidators() {
+        return ValidatorRegistry.getDefault().createValidators(enabledRules);
+    }
+    
+    /**
+     * Checks if any of the validators requires an artifact.
+     * 
+     * @param validators The validators that will run
+     * @param artifact The artifact key
+     * @return true if at least one validator requires the artifact
+     */
+    private boolean requires(List<Validator> validators, Artifact<?> artifact) {
         for (Validator validator : validators) {
-            validator.validate(documentNode, errorCollector);
+            if (validator.getRequiredArtifacts().contains(artifact)) {
+                return true;
+            }
         }
-        
-        // Step 5: Generate error report (Requirement #1)
-        ErrorReporter reporter = new ErrorReporter(inputFilePath, outputFilePath, errorCollector);
-        reporter.generateReport();
+        return false;
+    }
+    
+    /**
+     * Chooses the parser profile required by a set of validators.
+     * 
+     * @param validators The validators that will run
+     * @return STRUCTURE_ONLY if no validator inspects JavaScript, FULL otherwise
+     */
+    private ParserProfile chooseParserProfile(List<Validator> validators) {
+        for (Validator validator : validators) {
+            if (validator.needsScriptNodes()) {
+                return ParserProfile.FULL;
+            }
+        }
+        return ParserProfile.STRUCTURE_ONLY;
     }
     
     /**
@@ -108,5 +558,23 @@ public class ValidatorEngine {
     public DocumentNode getDocumentNode() {
         return documentNode;
     }
+    
+    /**
+     * Gets the index of HTML element IDs built while parsing.
+     * 
+     * @return Element ID index of this file
+     */
+    public ElementIdIndex getElementIdIndex() {
+        return parser.getElementIdIndex();
+    }
+    
+    /**
+     * Gets the path of the validated file.
+     * 
+     * @return Input file path
+     */
+    public String getInputFilePath() {
+        return inputFilePath;
+    }
 }
 
@@ -0,0 +1,41 @@
+package ast;
+
+/**
+ * Base class of the AST nodes, holding the state every node shares with
+ * the rest of the pipeline: its source span, set by the parser, and its
+ * dense ID, set by {@link NodeNumbering}. Subclasses keep their own
+ * position and children and implement {@link #accept(AstVisitor, Object)}.
+ * 
+ * @author eduardo
+ */
+public abstract class AbstractNode implements Node {
+    private int startOffset = -1;
+    private int endOffset = -1;
+    private int nodeId = -1;
+    
+    @Override
+    public int getStartOffset() {
+        return startOffset;
+    }
+    
+    @Override
+    public int getEndOffset() {
+        return endOffset;
+    }
+    
+    @Override
+    public void setSourceSpan(int startOffset, int endOffset) {
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+    }
+    
+    @Override
+    public int getNodeId() {
+        return nodeId;
+    }
+    
+    @Override
+    public void setNodeId(int nodeId) {
+        this.nodeId = nodeId;
+    }
+}
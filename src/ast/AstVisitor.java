@@ -0,0 +1,61 @@
+package ast;
+
+import ast.html.AttributeNode;
+import ast.html.DocumentNode;
+import ast.html.TagNode;
+import ast.html.TextNode;
+import ast.js.AssignmentNode;
+import ast.js.CallNode;
+import ast.js.ConstantNode;
+import ast.js.ExpressionNode;
+import ast.js.FunctionNode;
+import ast.js.IdentifierNode;
+import ast.js.ScriptNode;
+import ast.js.VariableNode;
+
+/**
+ * Visitor over AST nodes.
+ * Every method does nothing by default, so a visitor only overrides the
+ * node types it is interested in. Nodes dispatch to the matching method
+ * through {@link Node#accept(AstVisitor, Object)}.
+ * 
+ * @param <C> Type of the context passed along with every node
+ * @author eduardo
+ */
+public interface AstVisitor<C> {
+    default void visitDocument(DocumentNode node, C context) {
+    }
+    
+    default void visitTag(TagNode node, C context) {
+    }
+    
+    default void visitAttribute(AttributeNode node, C context) {
+    }
+    
+    default void visitText(TextNode node, C context) {
+    }
+    
+    default void visitScript(ScriptNode node, C context) {
+    }
+    
+    default void visitFunction(FunctionNode node, C context) {
+    }
+    
+    default void visitVariable(VariableNode node, C context) {
+    }
+    
+    default void visitConstant(ConstantNode node, C context) {
+    }
+    
+    default void visitAssignment(AssignmentNode node, C context) {
+    }
+    
+    default void visitExpression(ExpressionNode node, C context) {
+    }
+    
+    default void visitCall(CallNode node, C context) {
+    }
+    
+    default void visitIdentifier(IdentifierNode node, C context) {
+    }
+}
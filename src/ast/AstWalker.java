@@ -0,0 +1,91 @@
+package ast;
+
+import ast.html.AttributeNode;
+import ast.html.DocumentNode;
+import ast.html.TagNode;
+import ast.js.FunctionNode;
+import ast.js.ScriptNode;
+import utils.CancellationToken;
+
+/**
+ * Walks a document once, in source order, sending each node to a visitor.
+ * Visits the document, every tag with its attributes, text and script
+ * children, and every script statement including statements nested in
+ * function bodies. Expression operands are not walked; visitors that need
+ * them read them from the statement.
+ * 
+ * @author eduardo
+ */
+public final class AstWalker {
+    
+    private AstWalker() {
+    }
+    
+    /**
+     * Walks the whole document.
+     * 
+     * @param document The root document node
+     * @param visitor The visitor to send nodes to
+     * @param context Context passed to every visit
+     */
+    public static <C> void walk(DocumentNode document, AstVisitor<C> visitor, C context) {
+        walk(document, visitor, context, null);
+    }
+    
+    /**
+     * Walks the document until it is done or the token is cancelled.
+     * Cancellation is checked before every tag and statement.
+     * 
+     * @param document The root document node
+     * @param visitor The visitor to send nodes to
+     * @param context Context passed to every visit
+     * @param cancellation Token that stops the walk, or null to walk everything
+     */
+    public static <C> void walk(DocumentNode document, AstVisitor<C> visitor, C context,
+                                CancellationToken cancellation) {
+        if (CancellationToken.isCancelled(cancellation)) {
+            return;
+        }
+        document.accept(visitor, context);
+        for (TagNode tag : document.getChildren()) {
+            walkTag(tag, visitor, context, cancellation);
+        }
+    }
+    
+    private static <C> void walkTag(TagNode tag, AstVisitor<C> visitor, C context,
+                                    CancellationToken cancellation) {
+        if (CancellationToken.isCancelled(cancellation)) {
+            return;
+        }
+        tag.accept(visitor, context);
+        for (AttributeNode attribute : tag.getAttributes()) {
+            attribute.accept(visitor, context);
+        }
+        for (Node child : tag.getChildren()) {
+            if (child instanceof TagNode) {
+                walkTag((TagNode) child, visitor, context, cancellation);
+            } else if (child instanceof ScriptNode) {
+                ScriptNode script = (ScriptNode) child;
+                script.accept(visitor, context);
+                for (Node statement : script.getStatements()) {
+                    walkStatement(statement, visitor, context, cancellation);
+                }
+            } else {
+                child.accept(visitor, context);
+            }
+        }
+    }
+    
+    private static <C> void walkStatement(Node statement, AstVisitor<C> visitor, C context,
+                                          CancellationToken cancellation) {
+        if (statement == null || CancellationToken.isCancelled(cancellation)) {
+            return;
+        }
+        statement.accept(visitor, context);
+        if (statement instanceof FunctionNode) {
+            for (Node bodyStatement : ((FunctionNode) statement).getBodyStatements()) {
+                walkStatement(bodyStatement, visitor, context, cancellation);
+            }
+        }
+    }
+}
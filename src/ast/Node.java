@@ -20,5 +20,54 @@ public interface Node {
      * @return Column number (1-indexed)
      */
     int getColumnNumber();
+    
+    /**
+     * Gets the source offset where this node starts.
+     * Together with {@link #getEndOffset()} it lets callers slice the original
+     * text instead of keeping copies of it in the node.
+     * 
+     * @return Start offset (0-indexed, inclusive), or -1 if unknown
+     */
+    int getStartOffset();
+    
+    /**
+     * Gets the source offset just past the end of this node.
+     * 
+     * @return End offset (exclusive), or -1 if unknown
+     */
+    int getEndOffset();
+    
+    /**
+     * Sets the source span of this node. Called by the parser once the
+     * node's last token is known.
+     * 
+     * @param startOffset Start offset (inclusive)
+     * @param endOffset End offset (exclusive)
+     */
+    void setSourceSpan(int startOffset, int endOffset);
+    
+    /**
+     * Gets the dense ID of this node within its document.
+     * IDs run from 0 to the document's node count in source order, so
+     * analyses can keep per-node results in arrays indexed by ID.
+     * 
+     * @return Node ID, or -1 if the document has not been numbered
+     */
+    int getNodeId();
+    
+    /**
+     * Sets the dense ID of this node. Called by {@link NodeNumbering}.
+     * 
+     * @param nodeId Node ID
+     */
+    void setNodeId(int nodeId);
+    
+    /**
+     * Dispatches this node to the matching method of a visitor.
+     * 
+     * @param visitor The visitor
+     * @param context Context passed to the visitor
+     */
+    <C> void accept(AstVisitor<C> visitor, C context);
 }
 
@@ -0,0 +1,132 @@
+package ast;
+
+import ast.html.AttributeNode;
+import ast.html.DocumentNode;
+import ast.html.TagNode;
+import ast.js.AssignmentNode;
+import ast.js.CallNode;
+import ast.js.ConstantNode;
+import ast.js.ExpressionNode;
+import ast.js.FunctionNode;
+import ast.js.IdentifierNode;
+import ast.js.ScriptNode;
+import ast.js.VariableNode;
+import java.util.Arrays;
+
+/**
+ * Assigns dense node IDs to every node of a document, in (pre-)order of
+ * first reach. Unlike {@link AstWalker}, this reaches every node, including
+ * the doctype, function parameters and expression operands.
+ * 
+ * A node may be reached more than once (a function body statement is also
+ * listed by its script, sometimes repeatedly); it keeps the ID of its first
+ * reach and its subtree is not walked again, so the node count is the number
+ * of distinct nodes. Numbering also checks that the AST has no cycles: no
+ * node is reachable from inside itself, so traversals that start below a
+ * statement need no visited set.
+ * 
+ * @author eduardo
+ */
+public final class NodeNumbering {
+    private int nextId;
+    // Nodes numbered by this pass, indexed by their ID
+    private Node[] nodes;
+    // Whether the node with a given ID is on the current path
+    private boolean[] onPath;
+    
+    private NodeNumbering() {
+        this.nextId = 0;
+        this.nodes = new Node[64];
+        this.onPath = new boolean[64];
+    }
+    
+    /**
+     * Numbers all nodes of a document and records the node count on it.
+     * 
+     * @param document The root document node
+     * @return Number of nodes numbered
+     * @throws IllegalStateException If a node is reachable from itself
+     */
+    public static int number(DocumentNode document) {
+        NodeNumbering numbering = new NodeNumbering();
+        numbering.visit(document);
+        if (document.getDoctype() != null) {
+            numbering.visit(document.getDoctype());
+        }
+        for (TagNode tag : document.getChildren()) {
+            numbering.visit(tag);
+        }
+        document.setNodeCount(numbering.nextId);
+        return numbering.nextId;
+    }
+    
+    private void visit(Node node) {
+        if (node == null) {
+            return;
+        }
+        int previousId = node.getNodeId();
+        if (previousId >= 0 && previousId < nextId && nodes[previousId] == node) {
+            if (onPath[previousId]) {
+                throw new IllegalStateException("AST cycle at line " + node.getLineNumber());
+            }
+            // Already numbered through another parent
+            return;
+        }
+        int id = nextId++;
+        node.setNodeId(id);
+        if (id == nodes.length) {
+            nodes = Arrays.copyOf(nodes, nodes.length * 2);
+            onPath = Arrays.copyOf(onPath, onPath.length * 2);
+        }
+        nodes[id] = node;
+        onPath[id] = true;
+        visitChildren(node);
+        onPath[id] = false;
+    }
+    
+    private void visitChildren(Node node) {
+        if (node instanceof TagNode) {
+            TagNode tag = (TagNode) node;
+            for (AttributeNode attribute : tag.getAttributes()) {
+                visit(attribute);
+            }
+            for (Node child : tag.getChildren()) {
+                visit(child);
+            }
+        } else if (node instanceof ScriptNode) {
+            for (Node statement : ((ScriptNode) node).getStatements()) {
+                visit(statement);
+            }
+        } else if (node instanceof FunctionNode) {
+            FunctionNode function = (FunctionNode) node;
+            for (IdentifierNode parameter : function.getParameters()) {
+                visit(parameter);
+            }
+            for (Node statement : function.getBodyStatements()) {
+                visit(statement);
+            }
+        } else if (node instanceof VariableNode) {
+            VariableNode variable = (VariableNode) node;
+            visit(variable.getIdentifier());
+            visit(variable.getInitialValue());
+        } else if (node instanceof ConstantNode) {
+            ConstantNode constant = (ConstantNode) node;
+            visit(constant.getIdentifier());
+            visit(constant.getValue());
+        } else if (node instanceof AssignmentNode) {
+            AssignmentNode assignment = (AssignmentNode) node;
+            visit(assignment.getLeftHandSide());
+            visit(assignment.getRightHandSide());
+        } else if (node instanceof ExpressionNode) {
+            for (Node operand : ((ExpressionNode) node).getOperands()) {
+                visit(operand);
+            }
+        } else if (node instanceof CallNode) {
+            CallNode call = (CallNode) node;
+            visit(call.getCallee());
+            for (Node argument : call.getArguments()) {
+                visit(argument);
+            }
+        }
+    }
+}
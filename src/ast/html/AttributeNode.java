@@ -1,13 +1,14 @@
 package ast.html;
 
-import ast.Node;
+import ast.AbstractNode;
+import ast.AstVisitor;
 
 /**
  * Represents an HTML attribute.
  * 
  * @author eduardo
  */
-public class AttributeNode implements Node {
+public class AttributeNode extends AbstractNode {
     private final String name;
     private final String value;
     private final int lineNumber;
@@ -37,5 +38,10 @@ public class AttributeNode implements Node {
     public int getColumnNumber() {
         return columnNumber;
     }
+    
+    @Override
+    public <C> void accept(AstVisitor<C> visitor, C context) {
+        visitor.visitAttribute(this, context);
+    }
 }
 
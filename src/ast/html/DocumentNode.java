@@ -1,5 +1,7 @@
 package ast.html;
 
+import ast.AbstractNode;
+import ast.AstVisitor;
 import ast.Node;
 import java.util.ArrayList;
 import java.util.List;
@@ -10,12 +12,14 @@ import java.util.List;
  * 
  * @author eduardo
  */
-public class DocumentNode implements Node {
+public class DocumentNode extends AbstractNode {
     private final List<TagNode> children;
     private final int lineNumber;
     private final int columnNumber;
     private TagNode doctype;
     private TagNode htmlTag;
+    private String source;
+    private int nodeCount;
     
     public DocumentNode(int lineNumber, int columnNumber) {
         this.children = new ArrayList<>();
@@ -47,6 +51,45 @@ public class DocumentNode implements Node {
         this.htmlTag = htmlTag;
     }
     
+    /**
+     * Gets the source text the document was parsed from.
+     * 
+     * @return Source text, or null if unknown
+     */
+    public String getSource() {
+        return source;
+    }
+    
+    public void setSource(String source) {
+        this.source = source;
+    }
+    
+    /**
+     * Gets the original text of a node by slicing the source buffer.
+     * 
+     * @param node A node of this document
+     * @return The node's source text, or null if the node has no span
+     */
+    public String getSourceText(Node node) {
+        if (source == null || node.getStartOffset() < 0 || node.getEndOffset() < node.getStartOffset()) {
+            return null;
+        }
+        return source.substring(node.getStartOffset(), Math.min(node.getEndOffset(), source.length()));
+    }
+    
+    /**
+     * Gets the number of nodes in the document, i.e. one past the highest node ID.
+     * 
+     * @return Node count, or 0 if the document has not been numbered
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+    
+    public void setNodeCount(int nodeCount) {
+        this.nodeCount = nodeCount;
+    }
+    
     @Override
     public int getLineNumber() {
         return lineNumber;
@@ -56,5 +99,10 @@ public class DocumentNode implements Node {
     public int getColumnNumber() {
         return columnNumber;
     }
+    
+    @Override
+    public <C> void accept(AstVisitor<C> visitor, C context) {
+        visitor.visitDocument(this, context);
+    }
 }
 
@@ -0,0 +1,155 @@
+package ast.html;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hash-based index of HTML element IDs, kept in document order.
+ * Built once while parsing and shared read-only by every validator that
+ * resolves getElementById references (Requirements #6 and #7).
+ * 
+ * @author eduardo
+ */
+public class ElementIdIndex {
+    private final Map<String, Entry> entries;
+    private final List<String> declarations; // Every ID declaration, duplicates included
+    
+    /**
+     * Creates an empty element ID index.
+     */
+    public ElementIdIndex() {
+        this.entries = new LinkedHashMap<>();
+        this.declarations = new ArrayList<>();
+    }
+    
+    /**
+     * Records an element ID.
+     * The first element with a given ID is kept; later ones are recorded as duplicates.
+     * 
+     * @param id The element ID (without quotes)
+     * @param element The tag that declares the ID
+     * @param lineNumber Line number where the ID is declared
+     */
+    public void add(String id, TagNode element, int lineNumber) {
+        declarations.add(id);
+        Entry existing = entries.get(id);
+        if (existing == null) {
+            entries.put(id, new Entry(id, element, lineNumber));
+        } else {
+            existing.addDuplicate(lineNumber);
+        }
+    }
+    
+    /**
+     * Checks if an element with the given ID exists.
+     * 
+     * @param id The element ID
+     * @return true if the ID is declared, false otherwise
+     */
+    public boolean contains(String id) {
+        return entries.containsKey(id);
+    }
+    
+    /**
+     * Gets the index entry for an ID.
+     * 
+     * @param id The element ID
+     * @return The entry, or null if the ID is not declared
+     */
+    public Entry get(String id) {
+        return entries.get(id);
+    }
+    
+    /**
+     * Checks if an ID is declared by more than one element.
+     * 
+     * @param id The element ID
+     * @return true if the ID is duplicated, false otherwise
+     */
+    public boolean isDuplicate(String id) {
+        Entry entry = entries.get(id);
+        return entry != null && entry.isDuplicated();
+    }
+    
+    /**
+     * Gets all declared IDs, each once, in the order they first appear.
+     * 
+     * @return Unmodifiable set of element IDs
+     */
+    public Set<String> getIds() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+    
+    /**
+     * Gets every ID declaration in document order, including duplicates.
+     * 
+     * @return Unmodifiable list of element IDs
+     */
+    public List<String> getDeclarations() {
+        return Collections.unmodifiableList(declarations);
+    }
+    
+    /**
+     * Gets the number of distinct IDs.
+     * 
+     * @return ID count
+     */
+    public int size() {
+        return entries.size();
+    }
+    
+    /**
+     * Location information for a single element ID.
+     */
+    public static class Entry {
+        private final String id;
+        private final TagNode element;
+        private final int lineNumber;
+        private List<Integer> duplicateLines;
+        
+        private Entry(String id, TagNode element, int lineNumber) {
+            this.id = id;
+            this.element = element;
+            this.lineNumber = lineNumber;
+        }
+        
+        private void addDuplicate(int line) {
+            if (duplicateLines == null) {
+                duplicateLines = new ArrayList<>(2);
+            }
+            duplicateLines.add(line);
+        }
+        
+        public String getId() {
+            return id;
+        }
+        
+        public TagNode getElement() {
+            return element;
+        }
+        
+        public int getLineNumber() {
+            return lineNumber;
+        }
+        
+        public boolean isDuplicated() {
+            return duplicateLines != null;
+        }
+        
+        /**
+         * Gets the lines of later elements that reuse this ID.
+         * 
+         * @return List of duplicate line numbers (empty if the ID is unique)
+         */
+        public List<Integer> getDuplicateLines() {
+            if (duplicateLines == null) {
+                return Collections.emptyList();
+            }
+            return Collections.unmodifiableList(duplicateLines);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package ast.html;
 
+import ast.AbstractNode;
+import ast.AstVisitor;
 import ast.Node;
 import java.util.ArrayList;
 import java.util.List;
@@ -10,7 +12,7 @@ import java.util.List;
  * 
  * @author eduardo
  */
-public class TagNode implements Node {
+public class TagNode extends AbstractNode {
     private final String tagName;
     private final List<AttributeNode> attributes;
     private final List<Node> children;
@@ -77,5 +79,10 @@ public class TagNode implements Node {
     public int getColumnNumber() {
         return columnNumber;
     }
+    
+    @Override
+    public <C> void accept(AstVisitor<C> visitor, C context) {
+        visitor.visitTag(this, context);
+    }
 }
 
@@ -1,13 +1,14 @@
 package ast.html;
 
-import ast.Node;
+import ast.AbstractNode;
+import ast.AstVisitor;
 
 /**
  * Represents text content within HTML tags.
  * 
  * @author eduardo
  */
-public class TextNode implements Node {
+public class TextNode extends AbstractNode {
     private final String text;
     private final int lineNumber;
     private final int columnNumber;
@@ -31,5 +32,10 @@ public class TextNode implements Node {
     public int getColumnNumber() {
         return columnNumber;
     }
+    
+    @Override
+    public <C> void accept(AstVisitor<C> visitor, C context) {
+        visitor.visitText(this, context);
+    }
 }
 
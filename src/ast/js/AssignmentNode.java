@@ -1,5 +1,7 @@
 package ast.js;
 
+import ast.AbstractNode;
+import ast.AstVisitor;
 import ast.Node;
 
 /**
@@ -8,7 +10,7 @@ import ast.Node;
  * 
  * @author eduardo
  */
-public class AssignmentNode implements Node {
+public class AssignmentNode extends AbstractNode {
     private final IdentifierNode leftHandSide;
     private final String operator; // =, +=, -=, *=, /=
     private final Node rightHandSide;
@@ -45,5 +47,10 @@ public class AssignmentNode implements Node {
     public int getColumnNumber() {
         return columnNumber;
     }
+    
+    @Override
+    public <C> void accept(AstVisitor<C> visitor, C context) {
+        visitor.visitAssignment(this, context);
+    }
 }
 
@@ -1,5 +1,7 @@
 package ast.js;
 
+import ast.AbstractNode;
+import ast.AstVisitor;
 import ast.Node;
 import java.util.ArrayList;
 import java.util.List;
@@ -10,7 +12,7 @@ import java.util.List;
  * 
  * @author eduardo
  */
-public class CallNode implements Node {
+public class CallNode extends AbstractNode {
     private final Node callee; // What's being called
     private final List<Node> arguments;
     private final int lineNumber;
@@ -44,5 +46,10 @@ public class CallNode implements Node {
     public int getColumnNumber() {
         return columnNumber;
     }
+    
+    @Override
+    public <C> void accept(AstVisitor<C> visitor, C context) {
+        visitor.visitCall(this, context);
+    }
 }
 
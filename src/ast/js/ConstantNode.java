@@ -1,5 +1,7 @@
 package ast.js;
 
+import ast.AbstractNode;
+import ast.AstVisitor;
 import ast.Node;
 
 /**
@@ -7,7 +9,7 @@ import ast.Node;
  * 
  * @author eduardo
  */
-public class ConstantNode implements Node {
+public class ConstantNode extends AbstractNode {
     private final IdentifierNode identifier;
     private final Node value; // Required for const
     private final int lineNumber;
@@ -38,5 +40,10 @@ public class ConstantNode implements Node {
     public int getColumnNumber() {
         return columnNumber;
     }
+    
+    @Override
+    public <C> void accept(AstVisitor<C> visitor, C context) {
+        visitor.visitConstant(this, context);
+    }
 }
 
@@ -1,5 +1,7 @@
 package ast.js;
 
+import ast.AbstractNode;
+import ast.AstVisitor;
 import ast.Node;
 import java.util.ArrayList;
 import java.util.List;
@@ -10,7 +12,7 @@ import java.util.List;
  * 
  * @author eduardo
  */
-public class ExpressionNode implements Node {
+public class ExpressionNode extends AbstractNode {
     private final List<Node> operands;
     private final List<String> operators;
     private final int lineNumber;
@@ -48,5 +50,10 @@ public class ExpressionNode implements Node {
     public int getColumnNumber() {
         return columnNumber;
     }
+    
+    @Override
+    public <C> void accept(AstVisitor<C> visitor, C context) {
+        visitor.visitExpression(this, context);
+    }
 }
 
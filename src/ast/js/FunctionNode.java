@@ -1,5 +1,7 @@
 package ast.js;
 
+import ast.AbstractNode;
+import ast.AstVisitor;
 import ast.Node;
 import java.util.ArrayList;
 import java.util.List;
@@ -9,7 +11,7 @@ import java.util.List;
  * 
  * @author eduardo
  */
-public class FunctionNode implements Node {
+public class FunctionNode extends AbstractNode {
     private final String functionName;
     private final List<IdentifierNode> parameters;
     private final List<Node> bodyStatements;
@@ -53,5 +55,10 @@ public class FunctionNode implements Node {
     public int getColumnNumber() {
         return columnNumber;
     }
+    
+    @Override
+    public <C> void accept(AstVisitor<C> visitor, C context) {
+        visitor.visitFunction(this, context);
+    }
 }
 
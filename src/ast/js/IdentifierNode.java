@@ -1,13 +1,14 @@
 package ast.js;
 
-import ast.Node;
+import ast.AbstractNode;
+import ast.AstVisitor;
 
 /**
  * Represents a JavaScript identifier (variable name, function name, etc.).
  * 
  * @author eduardo
  */
-public class IdentifierNode implements Node {
+public class IdentifierNode extends AbstractNode {
     private final String name;
     private final int lineNumber;
     private final int columnNumber;
@@ -31,5 +32,10 @@ public class IdentifierNode implements Node {
     public int getColumnNumber() {
         return columnNumber;
     }
+    
+    @Override
+    public <C> void accept(AstVisitor<C> visitor, C context) {
+        visitor.visitIdentifier(this, context);
+    }
 }
 
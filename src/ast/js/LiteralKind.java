@@ -0,0 +1,33 @@
+package ast.js;
+
+import ast.Node;
+
+/**
+ * Kinds of JavaScript literals, as classified by the lexer.
+ * Also the literal type of an operand in the semantic model, where UNKNOWN
+ * stands for identifiers and other expressions.
+ * 
+ * @author eduardo
+ */
+public enum LiteralKind {
+    STRING,
+    NUMBER,
+    BOOLEAN,
+    NULL,
+    UNKNOWN;
+    
+    /**
+     * Gets the kind of an operand.
+     * Literal nodes carry the kind the lexer gave their token, so this is a
+     * field read; no text is scanned or parsed.
+     * 
+     * @param node Operand node
+     * @return The literal kind, or UNKNOWN for identifiers and other expressions
+     */
+    public static LiteralKind of(Node node) {
+        if (!(node instanceof LiteralNode)) {
+            return UNKNOWN;
+        }
+        return ((LiteralNode) node).getKind();
+    }
+}
@@ -0,0 +1,23 @@
+package ast.js;
+
+/**
+ * Represents a JavaScript literal ("text", 42, true, null).
+ * The kind is taken from the lexer token when the node is created, so
+ * later stages read it instead of classifying the text again.
+ * Literals are still identifiers to visitors and validators that do not
+ * care about the difference.
+ * 
+ * @author eduardo
+ */
+public class LiteralNode extends IdentifierNode {
+    private final LiteralKind kind;
+    
+    public LiteralNode(String text, LiteralKind kind, int lineNumber, int columnNumber) {
+        super(text, lineNumber, columnNumber);
+        this.kind = kind;
+    }
+    
+    public LiteralKind getKind() {
+        return kind;
+    }
+}
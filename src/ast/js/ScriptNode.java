@@ -1,5 +1,7 @@
 package ast.js;
 
+import ast.AbstractNode;
+import ast.AstVisitor;
 import ast.Node;
 import java.util.ArrayList;
 import java.util.List;
@@ -10,7 +12,7 @@ import java.util.List;
  * 
  * @author eduardo
  */
-public class ScriptNode implements Node {
+public class ScriptNode extends AbstractNode {
     private final List<Node> statements;
     private final int lineNumber;
     private final int columnNumber;
@@ -38,5 +40,10 @@ public class ScriptNode implements Node {
     public int getColumnNumber() {
         return columnNumber;
     }
+    
+    @Override
+    public <C> void accept(AstVisitor<C> visitor, C context) {
+        visitor.visitScript(this, context);
+    }
 }
 
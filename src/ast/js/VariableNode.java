@@ -1,5 +1,7 @@
 package ast.js;
 
+import ast.AbstractNode;
+import ast.AstVisitor;
 import ast.Node;
 
 /**
@@ -7,7 +9,7 @@ import ast.Node;
  * 
  * @author eduardo
  */
-public class VariableNode implements Node {
+public class VariableNode extends AbstractNode {
     private final String keyword; // "let" or "var"
     private final IdentifierNode identifier;
     private final Node initialValue; // Can be null if uninitialized
@@ -44,5 +46,10 @@ public class VariableNode implements Node {
     public int getColumnNumber() {
         return columnNumber;
     }
+    
+    @Override
+    public <C> void accept(AstVisitor<C> visitor, C context) {
+        visitor.visitVariable(this, context);
+    }
 }
 
@@ -1,24 +1,133 @@
 package errors;
 
+import utils.CancellationToken;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Centralized error collection system.
  * All validators add errors here instead of printing directly.
  * 
+ * An error limit can be set for fail-fast runs: once that many errors have
+ * been reported (to this collector or any of its buffers), the cancellation
+ * token is cancelled so running stages stop, and further errors are dropped.
+ * The token stages poll may also be set without a limit (e.g. to enforce a
+ * time budget), and a buffer may poll its own token (e.g. one per validator).
+ * 
+ * Listeners are told about every error as it is added (e.g. to stream
+ * machine-readable reports); buffers do not inherit them.
+ * 
  * @author eduardo
  */
 public class ErrorCollector {
     private final List<Error> errors;
+    private final List<ErrorListener> listeners;
     private int nextErrorNumber;
+    private int maxErrors;
+    private CancellationToken cancellation; // Polled by the stages reporting here
+    private CancellationToken limitCancellation; // Cancelled when the error limit is reached
+    private AtomicInteger reportedCount; // Errors reported to this collector and its buffers
     
     /**
      * Creates a new error collector.
      */
     public ErrorCollector() {
         this.errors = new ArrayList<>();
+        this.listeners = new ArrayList<>(0);
         this.nextErrorNumber = 1;
+        this.maxErrors = Integer.MAX_VALUE;
+    }
+    
+    /**
+     * Limits the number of errors kept and cancels the token when it is reached.
+     * 
+     * @param maxErrors Maximum number of errors (at least 1)
+     * @param cancellation Token to cancel once the limit is reached
+     */
+    public void setErrorLimit(int maxErrors, CancellationToken cancellation) {
+        this.maxErrors = maxErrors;
+        this.cancellation = cancellation;
+        this.limitCancellation = cancellation;
+        this.reportedCount = new AtomicInteger(errors.size());
+        if (errors.size() >= maxErrors) {
+            cancellation.cancel();
+        }
+    }
+    
+    /**
+     * Sets the token that stages reporting here poll to stop early,
+     * without limiting the number of errors.
+     * 
+     * @param cancellation The token, or null for none
+     */
+    public void setCancellationToken(CancellationToken cancellation) {
+        this.cancellation = cancellation;
+    }
+    
+    /**
+     * Creates an empty collector for one producer of errors (e.g. one validator)
+     * that is merged back with {@link #addAll(ErrorCollector)}.
+     * The buffer shares this collector's error limit: errors reported to any
+     * buffer count towards it.
+     * 
+     * @return A new buffer
+     */
+    public ErrorCollector createBuffer() {
+        return createBuffer(cancellation);
+    }
+    
+    /**
+     * Creates a buffer whose producer polls its own token, usually a child of
+     * this collector's token with a time budget. Reaching the error limit
+     * still cancels this collector's token.
+     * 
+     * @param cancellation Token for the producer of errors, or null for none
+     * @return A new buffer
+     */
+    public ErrorCollector createBuffer(CancellationToken cancellation) {
+        ErrorCollector buffer = new ErrorCollector();
+        buffer.maxErrors = maxErrors;
+        buffer.cancellation = cancellation;
+        buffer.limitCancellation = limitCancellation;
+        buffer.reportedCount = reportedCount;
+        return buffer;
+    }
+    
+    /**
+     * Registers a listener that is told about every error added from now on.
+     * 
+     * @param listener The listener
+     */
+    public void addListener(ErrorListener listener) {
+        listeners.add(listener);
+    }
+    
+    /**
+     * Unregisters a listener.
+     * 
+     * @param listener The listener
+     */
+    public void removeListener(ErrorListener listener) {
+        listeners.remove(listener);
+    }
+    
+    /**
+     * Gets the token that stages reporting here poll to stop early.
+     * 
+     * @return The cancellation token, or null if none is set
+     */
+    public CancellationToken getCancellationToken() {
+        return cancellation;
+    }
+    
+    /**
+     * Checks if the error limit has been reached, here or in a buffer.
+     * 
+     * @return true if no more errors are needed, false otherwise
+     */
+    public boolean isLimitReached() {
+        return reportedCount != null && reportedCount.get() >= maxErrors;
     }
     
     /**
@@ -27,7 +136,14 @@ public class ErrorCollector {
      * @param error The error to add
      */
     public void addError(Error error) {
+        if (errors.size() >= maxErrors) {
+            return;
+        }
         errors.add(error);
+        if (reportedCount != null && reportedCount.incrementAndGet() >= maxErrors) {
+            limitCancellation.cancel();
+        }
+        notifyListeners(error);
     }
     
     /**
@@ -36,11 +152,18 @@ public class ErrorCollector {
      * @param lineNumber Line number where error occurs
      * @param description Error description
      * @param errorType Type of error
-     * @return The created error
+     * @return The created error, or null if the error limit was already reached
      */
     public Error addError(int lineNumber, String description, String errorType) {
+        if (errors.size() >= maxErrors) {
+            return null;
+        }
         Error error = new Error(lineNumber, nextErrorNumber++, description, errorType);
         errors.add(error);
+        if (reportedCount != null && reportedCount.incrementAndGet() >= maxErrors) {
+            limitCancellation.cancel();
+        }
+        notifyListeners(error);
         return error;
     }
     
@@ -49,12 +172,42 @@ public class ErrorCollector {
      * 
      * @param lineNumber Line number where error occurs
      * @param description Error description
-     * @return The created error
+     * @return The created error, or null if the error limit was already reached
      */
     public Error addError(int lineNumber, String description) {
         return addError(lineNumber, description, "GENERAL");
     }
     
+    /**
+     * Appends every error of another collector, in order.
+     * The appended errors are numbered after the errors already collected,
+     * so merging per-validator buffers in a fixed order yields the same
+     * numbers as reporting into one collector. Errors past the error limit
+     * are dropped; buffers already counted towards it.
+     * 
+     * @param other The collector to copy errors from
+     */
+    public void addAll(ErrorCollector other) {
+        for (Error error : other.errors) {
+            if (errors.size() >= maxErrors) {
+                return;
+            }
+            Error merged = new Error(error.getLineNumber(), nextErrorNumber++, 
+                                     error.getDescription(), error.getErrorType());
+            errors.add(merged);
+            notifyListeners(merged);
+        }
+    }
+    
+    /**
+     * Tells every listener about an error that was just added.
+     */
+    private void notifyListeners(Error error) {
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).errorAdded(error);
+        }
+    }
+    
     /**
      * Gets all collected errors.
      * 
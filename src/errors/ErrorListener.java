@@ -0,0 +1,19 @@
+package errors;
+
+/**
+ * Receives every error added to a collector, as it is added.
+ * Errors arrive in their final order and with their final numbers: errors
+ * merged from buffers are delivered when they are merged, not when the
+ * buffer received them.
+ * 
+ * @author eduardo
+ */
+public interface ErrorListener {
+    
+    /**
+     * Called after an error is added to the collector.
+     * 
+     * @param error The error, with its number in the collector
+     */
+    void errorAdded(Error error);
+}
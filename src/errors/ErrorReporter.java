@@ -1,90 +1,125 @@
 package errors;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.FileReader;
-import java.io.FileWriter;
+import profiling.JfrEvents;
+import profiling.ReportEvent;
+import utils.ChannelWriter;
+import utils.SourceText;
 import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Generates the numbered error report file (Requirement #1).
  * Creates a .txt copy of the HTML file with numbered lines and error annotations.
+ * The lines are copied from the source already in memory, so the HTML file
+ * is not read again, and the report is written as UTF-8 through a file channel.
  * 
  * @author eduardo
  */
 public class ErrorReporter {
-    private final String inputFilePath;
+    private static final int LINE_NUMBER_DIGITS = 4;
+    
+    private final SourceText source;
     private final String outputFilePath;
     private final ErrorCollector errorCollector;
+    private final char[] digits = new char[20]; // Reused to format numbers
     
     /**
      * Creates a new error reporter.
      * 
-     * @param inputFilePath Path to the input HTML file
+     * @param source Contents of the input HTML file, as read for validation
      * @param outputFilePath Path to the output .txt file
      * @param errorCollector The error collector containing all errors
      */
-    public ErrorReporter(String inputFilePath, String outputFilePath, ErrorCollector errorCollector) {
-        this.inputFilePath = inputFilePath;
+    public ErrorReporter(SourceText source, String outputFilePath, ErrorCollector errorCollector) {
+        this.source = source;
         this.outputFilePath = outputFilePath;
         this.errorCollector = errorCollector;
     }
     
     /**
      * Generates the numbered error report file.
+     * Streams the source lines and the errors sorted by line side by side,
+     * writing each line followed by its errors.
      * 
      * @throws IOException If file I/O fails
      */
     public void generateReport() throws IOException {
-        // Read original file
-        List<String> lines = readFileLines();
+        ReportEvent event = JfrEvents.isRecorderInitialized() ? new ReportEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
         
-        // Group errors by line number
-        Map<Integer, List<Error>> errorsByLine = errorCollector.getErrors().stream()
-                .collect(Collectors.groupingBy(Error::getLineNumber));
+        // Stable sort: errors of one line keep the order they were reported in
+        List<Error> errors = errorCollector.getErrorsSortedByLine();
+        int nextError = 0;
         
         // Write numbered file with errors
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(outputFilePath))) {
-            for (int i = 0; i < lines.size(); i++) {
-                int lineNumber = i + 1;
-                String line = lines.get(i);
-                
-                // Write numbered line (4-digit format: 0001, 0002, etc.)
-                String numberedLine = String.format("%04d %s", lineNumber, line);
-                writer.write(numberedLine);
+        try (ChannelWriter writer = ChannelWriter.open(outputFilePath)) {
+            String text = source.getText();
+            int lineCount = source.getLineCount();
+            for (int lineNumber = 1; lineNumber <= lineCount; lineNumber++) {
+                // Write numbered line (4-digit format: 0001, 0002, etc.),
+                // copying it straight from the source
+                int start = source.getLineStart(lineNumber);
+                writeNumber(writer, lineNumber, LINE_NUMBER_DIGITS);
+                writer.write(' ');
+                writer.write(text, start, source.getLineEnd(lineNumber) - start);
                 writer.newLine();
                 
+                // Errors before this line are outside the file (e.g. line 0) and are not reported
+                while (nextError < errors.size() && errors.get(nextError).getLineNumber() < lineNumber) {
+                    nextError++;
+                }
+                
                 // Write errors for this line (below the line)
-                if (errorsByLine.containsKey(lineNumber)) {
-                    for (Error error : errorsByLine.get(lineNumber)) {
-                        String errorLine = String.format("     Error %d: %s at line %d", 
-                                error.getErrorNumber(), error.getDescription(), error.getLineNumber());
-                        writer.write(errorLine);
-                        writer.newLine();
-                    }
+                while (nextError < errors.size() && errors.get(nextError).getLineNumber() == lineNumber) {
+                    writeError(writer, errors.get(nextError));
+                    nextError++;
                 }
             }
         }
+        
+        if (event != null && event.shouldCommit()) {
+            event.filePath = outputFilePath;
+            event.lineCount = source.getLineCount();
+            event.errorCount = errorCollector.getErrorCount();
+            event.commit();
+        }
     }
     
     /**
-     * Reads all lines from the input file.
-     * 
-     * @return List of file lines
-     * @throws IOException If file reading fails
+     * Writes an error annotation: "     Error N: description at line L".
      */
-    private List<String> readFileLines() throws IOException {
-        List<String> lines = new java.util.ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(inputFilePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                lines.add(line);
-            }
+    private void writeError(ChannelWriter writer, Error error) throws IOException {
+        writer.write("     Error ");
+        writeNumber(writer, error.getErrorNumber(), 1);
+        writer.write(": ");
+        writer.write(error.getDescription());
+        writer.write(" at line ");
+        writeNumber(writer, error.getLineNumber(), 1);
+        writer.newLine();
+    }
+    
+    /**
+     * Writes a number in decimal, left-padded with zeros to a minimum width
+     * (as "%0<width>d" would), through a reused buffer.
+     */
+    private void writeNumber(Writer writer, int value, int minDigits) throws IOException {
+        long magnitude = Math.abs((long) value);
+        int pos = digits.length;
+        do {
+            digits[--pos] = (char) ('0' + (int) (magnitude % 10));
+            magnitude /= 10;
+        } while (magnitude > 0);
+        int width = value < 0 ? minDigits - 1 : minDigits;
+        while (digits.length - pos < width) {
+            digits[--pos] = '0';
+        }
+        if (value < 0) {
+            digits[--pos] = '-';
         }
-        return lines;
+        writer.write(digits, pos, digits.length - pos);
     }
     
     /**
@@ -0,0 +1,72 @@
+package errors;
+
+import utils.ChannelWriter;
+import java.io.IOException;
+
+/**
+ * Streams the errors of one file as JSON Lines: one JSON object per error
+ * and per line, written as soon as the error is added, e.g.
+ * {"file":"test.html","line":3,"number":1,"type":"IDENTIFIER","message":"..."}
+ * 
+ * @author eduardo
+ */
+public final class JsonLinesSink implements ReportSink {
+    private final String inputFilePath;
+    private final String outputFilePath;
+    private final ChannelWriter writer;
+    private IOException failure; // First write failure, thrown by close()
+    
+    /**
+     * Creates the report file.
+     * 
+     * @param inputFilePath Path of the validated file, written in every record
+     * @param outputFilePath Path of the .jsonl report
+     * @throws IOException If the report file cannot be created
+     */
+    public JsonLinesSink(String inputFilePath, String outputFilePath) throws IOException {
+        this.inputFilePath = inputFilePath;
+        this.outputFilePath = outputFilePath;
+        this.writer = ChannelWriter.open(outputFilePath);
+    }
+    
+    @Override
+    public void errorAdded(Error error) {
+        if (failure != null) {
+            return;
+        }
+        try {
+            writer.write("{\"file\":");
+            JsonText.writeString(writer, inputFilePath);
+            writer.write(",\"line\":");
+            writer.write(Integer.toString(error.getLineNumber()));
+            writer.write(",\"number\":");
+            writer.write(Integer.toString(error.getErrorNumber()));
+            writer.write(",\"type\":");
+            JsonText.writeString(writer, error.getErrorType());
+            writer.write(",\"message\":");
+            JsonText.writeString(writer, error.getDescription());
+            writer.write("}\n");
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+    
+    @Override
+    public String getOutputFilePath() {
+        return outputFilePath;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package errors;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes JSON string literals for the machine-readable reports.
+ * 
+ * @author eduardo
+ */
+final class JsonText {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    
+    private JsonText() {
+    }
+    
+    /**
+     * Writes a string as a quoted JSON literal, escaping quotes, backslashes
+     * and control characters. Other characters are written as they are.
+     * 
+     * @param writer Where to write
+     * @param text The string
+     * @throws IOException If writing fails
+     */
+    static void writeString(Writer writer, String text) throws IOException {
+        writer.write('"');
+        int runStart = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            writer.write(text, runStart, i - runStart);
+            runStart = i + 1;
+            switch (c) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                default:
+                    writer.write("\\u00");
+                    writer.write(HEX_DIGITS[c >> 4]);
+                    writer.write(HEX_DIGITS[c & 0xF]);
+                    break;
+            }
+        }
+        writer.write(text, runStart, text.length() - runStart);
+        writer.write('"');
+    }
+}
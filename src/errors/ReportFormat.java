@@ -0,0 +1,96 @@
+package errors;
+
+import java.io.IOException;
+
+/**
+ * Formats a file's report can be written in. Several can be written at once.
+ * 
+ * @author eduardo
+ */
+public enum ReportFormat {
+    /**
+     * Numbered copy of the file with the errors below their lines (Requirement #1).
+     */
+    TXT("txt", ".txt"),
+    
+    /**
+     * One JSON object per error, streamed while validating ({@link JsonLinesSink}).
+     */
+    JSONL("jsonl", ".jsonl"),
+    
+    /**
+     * SARIF 2.1.0 log, streamed while validating ({@link SarifSink}).
+     */
+    SARIF("sarif", ".sarif");
+    
+    private final String name;
+    private final String extension;
+    
+    ReportFormat(String name, String extension) {
+        this.name = name;
+        this.extension = extension;
+    }
+    
+    /**
+     * Gets the name used to select the format (e.g. on the command line).
+     * 
+     * @return Format name
+     */
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Gets the extension of the format's report files.
+     * 
+     * @return File extension, including the dot
+     */
+    public String getExtension() {
+        return extension;
+    }
+    
+    /**
+     * Checks if the report is written while the file is validated.
+     * 
+     * @return true for the machine-readable formats, false for the numbered text report
+     */
+    public boolean isStreaming() {
+        return this != TXT;
+    }
+    
+    /**
+     * Opens a streaming report for a file.
+     * 
+     * @param inputFilePath Path of the validated file
+     * @param outputFilePath Path of the report
+     * @return The sink that writes the report
+     * @throws IOException If the report file cannot be created
+     * @throws IllegalStateException If the format is not streaming
+     */
+    public ReportSink openSink(String inputFilePath, String outputFilePath) throws IOException {
+        switch (this) {
+            case JSONL:
+                return new JsonLinesSink(inputFilePath, outputFilePath);
+            case SARIF:
+                return new SarifSink(inputFilePath, outputFilePath);
+            default:
+                throw new IllegalStateException("Report format is not streaming: " + name);
+        }
+    }
+    
+    /**
+     * Finds a format by name.
+     * 
+     * @param name Format name (txt, jsonl, sarif)
+     * @return The format
+     * @throws IllegalArgumentException If no format has that name
+     */
+    public static ReportFormat fromName(String name) {
+        for (ReportFormat format : values()) {
+            if (format.name.equals(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown report format: " + name);
+    }
+}
@@ -0,0 +1,34 @@
+package errors;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Report of one file that is written while the file is validated.
+ * Registered as a listener of the file's error collector, it writes each
+ * error as it is added and finishes the report when closed, so the sink
+ * never holds the document's errors in memory.
+ * 
+ * {@link #errorAdded(Error)} cannot throw I/O errors, since it is called
+ * from the code that reports the error; the first failure is kept and
+ * thrown by {@link #close()}.
+ * 
+ * @author eduardo
+ */
+public interface ReportSink extends ErrorListener, Closeable {
+    
+    /**
+     * Gets the path of the report being written.
+     * 
+     * @return Output file path
+     */
+    String getOutputFilePath();
+    
+    /**
+     * Finishes the report and closes its file.
+     * 
+     * @throws IOException If writing the report failed at any point
+     */
+    @Override
+    void close() throws IOException;
+}
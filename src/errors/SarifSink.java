@@ -0,0 +1,137 @@
+package errors;
+
+import utils.ChannelWriter;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+
+/**
+ * Streams the errors of one file as a SARIF 2.1.0 log, the format read by
+ * code-scanning dashboards. The log header is written when the sink is
+ * created, each error is appended to the run's results as soon as it is
+ * added, and the closing brackets are written on close.
+ * Every error becomes a result whose rule is the error type, with the error
+ * number kept in the result's properties.
+ * 
+ * @author eduardo
+ */
+public final class SarifSink implements ReportSink {
+    private static final String TOOL_NAME = "Validador HTML/JavaScript";
+    
+    private final String outputFilePath;
+    private final String artifactUri;
+    private final ChannelWriter writer;
+    private boolean firstResult;
+    private IOException failure; // First write failure, thrown by close()
+    
+    /**
+     * Creates the log file and writes its header.
+     * 
+     * @param inputFilePath Path of the validated file, the location of every result
+     * @param outputFilePath Path of the .sarif log
+     * @throws IOException If the log file cannot be created or written
+     */
+    public SarifSink(String inputFilePath, String outputFilePath) throws IOException {
+        this.outputFilePath = outputFilePath;
+        this.artifactUri = toUri(inputFilePath);
+        this.firstResult = true;
+        this.writer = ChannelWriter.open(outputFilePath);
+        try {
+            writer.write("{\n");
+            writer.write("  \"$schema\": \"https://json.schemastore.org/sarif-2.1.0.json\",\n");
+            writer.write("  \"version\": \"2.1.0\",\n");
+            writer.write("  \"runs\": [\n");
+            writer.write("    {\n");
+            writer.write("      \"tool\": {\"driver\": {\"name\": ");
+            JsonText.writeString(writer, TOOL_NAME);
+            writer.write("}},\n");
+            writer.write("      \"artifacts\": [{\"location\": {\"uri\": ");
+            JsonText.writeString(writer, artifactUri);
+            writer.write("}}],\n");
+            writer.write("      \"results\": [");
+        } catch (IOException e) {
+            writer.close();
+            throw e;
+        }
+    }
+    
+    @Override
+    public void errorAdded(Error error) {
+        if (failure != null) {
+            return;
+        }
+        try {
+            writer.write(firstResult ? "\n        " : ",\n        ");
+            firstResult = false;
+            writer.write("{\"ruleId\": ");
+            JsonText.writeString(writer, error.getErrorType());
+            writer.write(", \"level\": \"error\", \"message\": {\"text\": ");
+            JsonText.writeString(writer, error.getDescription());
+            writer.write("}, \"locations\": [{\"physicalLocation\": {\"artifactLocation\": {\"uri\": ");
+            JsonText.writeString(writer, artifactUri);
+            writer.write(", \"index\": 0}");
+            // SARIF lines start at 1; errors outside the file have no region
+            if (error.getLineNumber() >= 1) {
+                writer.write(", \"region\": {\"startLine\": ");
+                writer.write(Integer.toString(error.getLineNumber()));
+                writer.write('}');
+            }
+            writer.write("}}], \"properties\": {\"errorNumber\": ");
+            writer.write(Integer.toString(error.getErrorNumber()));
+            writer.write("}}");
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+    
+    @Override
+    public String getOutputFilePath() {
+        return outputFilePath;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            if (failure == null) {
+                writer.write(firstResult ? "]\n" : "\n      ]\n");
+                writer.write("    }\n");
+                writer.write("  ]\n");
+                writer.write("}\n");
+            }
+        } catch (IOException e) {
+            failure = e;
+        } finally {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+    
+    /**
+     * Converts a file path to a URI reference: relative paths stay relative
+     * (with '/' separators and percent-encoding), absolute paths become file: URIs.
+     */
+    private static String toUri(String filePath) {
+        File file = new File(filePath);
+        if (file.isAbsolute()) {
+            return file.toURI().toASCIIString();
+        }
+        try {
+            String uri = new URI(null, null, filePath.replace(File.separatorChar, '/'), null).toASCIIString();
+            // A colon in the first segment would read as a scheme
+            int colon = uri.indexOf(':');
+            int slash = uri.indexOf('/');
+            return colon >= 0 && (slash < 0 || colon < slash) ? "./" + uri : uri;
+        } catch (URISyntaxException e) {
+            return file.getAbsoluteFile().toURI().toASCIIString();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package lexer;
+
+import java.util.Arrays;
+
+/**
+ * Bracket-pair table computed during tokenization.
+ * Maps the index of every opening token ((, {, [ and &lt;script&gt;) to the index of its
+ * matching closer and vice versa, so the parser can jump to a closer in O(1)
+ * instead of counting depth while it walks.
+ * 
+ * @author eduardo
+ */
+public class BracketTable {
+    /**
+     * Value stored for tokens that have no matching partner.
+     */
+    public static final int NO_MATCH = -1;
+    
+    private int[] matches;
+    private int size;
+    
+    // Indices and types of openers still waiting for their closer
+    private int[] openStack;
+    private TokenType[] openTypes;
+    private int openCount;
+    
+    /**
+     * Creates an empty bracket table.
+     */
+    public BracketTable() {
+        this.matches = new int[64];
+        this.openStack = new int[16];
+        this.openTypes = new TokenType[16];
+        this.size = 0;
+        this.openCount = 0;
+    }
+    
+    /**
+     * Records the token at the next index.
+     * Must be called once per token, in token order.
+     * 
+     * @param type Type of the token being recorded
+     */
+    void record(TokenType type) {
+        int index = size++;
+        if (index == matches.length) {
+            matches = Arrays.copyOf(matches, matches.length * 2);
+        }
+        matches[index] = NO_MATCH;
+        
+        switch (type) {
+            case LEFT_PAREN:
+            case LEFT_BRACE:
+            case LEFT_BRACKET:
+            case SCRIPT_OPEN:
+                push(index, type);
+                break;
+            case RIGHT_PAREN:
+                close(index, TokenType.LEFT_PAREN);
+                break;
+            case RIGHT_BRACE:
+                close(index, TokenType.LEFT_BRACE);
+                break;
+            case RIGHT_BRACKET:
+                close(index, TokenType.LEFT_BRACKET);
+                break;
+            case SCRIPT_CLOSE:
+                close(index, TokenType.SCRIPT_OPEN);
+                break;
+            default:
+                break;
+        }
+    }
+    
+    /**
+     * Gets the index of the token matching the given opener or closer.
+     * 
+     * @param tokenIndex Index of a bracket or script token
+     * @return Index of its partner, or {@link #NO_MATCH} if it is unbalanced
+     */
+    public int getMatch(int tokenIndex) {
+        if (tokenIndex < 0 || tokenIndex >= size) {
+            return NO_MATCH;
+        }
+        return matches[tokenIndex];
+    }
+    
+    /**
+     * Checks if the given token has a matching partner.
+     * 
+     * @param tokenIndex Index of a bracket or script token
+     * @return true if a partner exists, false otherwise
+     */
+    public boolean hasMatch(int tokenIndex) {
+        return getMatch(tokenIndex) != NO_MATCH;
+    }
+    
+    /**
+     * Gets the number of tokens recorded in the table.
+     * 
+     * @return Token count
+     */
+    public int size() {
+        return size;
+    }
+    
+    private void push(int index, TokenType type) {
+        if (openCount == openStack.length) {
+            openStack = Arrays.copyOf(openStack, openStack.length * 2);
+            openTypes = Arrays.copyOf(openTypes, openTypes.length * 2);
+        }
+        openStack[openCount] = index;
+        openTypes[openCount] = type;
+        openCount++;
+    }
+    
+    /**
+     * Pairs a closer with the nearest open token of the expected kind.
+     * Openers skipped over are left unmatched; a script close therefore also
+     * discards any brackets left open inside the script, so they never pair across blocks.
+     */
+    private void close(int index, TokenType expectedOpener) {
+        for (int i = openCount - 1; i >= 0; i--) {
+            if (openTypes[i] == expectedOpener) {
+                int opener = openStack[i];
+                matches[opener] = index;
+                matches[index] = opener;
+                openCount = i;
+                return;
+            }
+            if (openTypes[i] == TokenType.SCRIPT_OPEN) {
+                // Brackets never pair across a script boundary
+                return;
+            }
+        }
+    }
+}
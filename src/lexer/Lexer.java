@@ -1,5 +1,8 @@
 package lexer;
 
+import profiling.JfrEvents;
+import profiling.LexEvent;
+import utils.CancellationToken;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -17,6 +20,9 @@ public class Lexer {
     private boolean inScriptTag;
     private boolean inString;
     private char stringDelimiter;
+    private int tokenStart; // Source offset where the token being read starts
+    private final BracketTable bracketTable;
+    private CancellationToken cancellation; // Stops tokenizing early, may be null
     
     // JavaScript reserved words
     private static final String[] JS_KEYWORDS = {
@@ -40,26 +46,61 @@ public class Lexer {
         this.columnNumber = 1;
         this.inScriptTag = false;
         this.inString = false;
+        this.bracketTable = new BracketTable();
+    }
+    
+    /**
+     * Sets a token that stops tokenizing early. Must be called before {@link #tokenize()}.
+     * 
+     * @param cancellation Cancellation token, or null to always tokenize the whole input
+     */
+    public void setCancellationToken(CancellationToken cancellation) {
+        this.cancellation = cancellation;
     }
     
     /**
      * Tokenizes the entire input and returns a list of tokens.
+     * Also fills the bracket-pair table, available through {@link #getBracketTable()}.
+     * If cancelled, the list ends early, still terminated by an EOF token.
      * 
      * @return List of tokens
      */
     public List<Token> tokenize() {
+        LexEvent event = JfrEvents.isRecorderInitialized() ? new LexEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
         List<Token> tokens = new ArrayList<>();
         Token token;
         
-        while ((token = nextToken()) != null && token.getType() != TokenType.EOF) {
+        while (!CancellationToken.isCancelled(cancellation) &&
+               (token = nextToken()) != null && token.getType() != TokenType.EOF) {
             tokens.add(token);
+            bracketTable.record(token.getType());
         }
         
         // Add EOF token
-        tokens.add(new Token(TokenType.EOF, "", lineNumber, columnNumber));
+        tokens.add(new Token(TokenType.EOF, "", lineNumber, columnNumber, input.length(), input.length()));
+        bracketTable.record(TokenType.EOF);
+        
+        if (event != null && event.shouldCommit()) {
+            event.inputLength = input.length();
+            event.tokenCount = tokens.size();
+            event.commit();
+        }
         return tokens;
     }
     
+    /**
+     * Gets the bracket-pair table built by {@link #tokenize()}.
+     * Indices in the table are indices into the returned token list.
+     * 
+     * @return Bracket-pair table
+     */
+    public BracketTable getBracketTable() {
+        return bracketTable;
+    }
+    
     /**
      * Gets the next token from the input.
      * 
@@ -76,6 +117,7 @@ public class Lexer {
             return new Token(TokenType.EOF, "", lineNumber, columnNumber);
         }
         
+        tokenStart = position;
         char current = input.charAt(position);
         
         // Check if we're entering or leaving a script tag
@@ -164,37 +206,37 @@ public class Lexer {
         switch (current) {
             case '(':
                 advance();
-                return new Token(TokenType.LEFT_PAREN, "(", startLine, startCol);
+                return token(TokenType.LEFT_PAREN, "(", startLine, startCol);
             case ')':
                 advance();
-                return new Token(TokenType.RIGHT_PAREN, ")", startLine, startCol);
+                return token(TokenType.RIGHT_PAREN, ")", startLine, startCol);
             case '{':
                 advance();
-                return new Token(TokenType.LEFT_BRACE, "{", startLine, startCol);
+                return token(TokenType.LEFT_BRACE, "{", startLine, startCol);
             case '}':
                 advance();
-                return new Token(TokenType.RIGHT_BRACE, "}", startLine, startCol);
+                return token(TokenType.RIGHT_BRACE, "}", startLine, startCol);
             case '[':
                 advance();
-                return new Token(TokenType.LEFT_BRACKET, "[", startLine, startCol);
+                return token(TokenType.LEFT_BRACKET, "[", startLine, startCol);
             case ']':
                 advance();
-                return new Token(TokenType.RIGHT_BRACKET, "]", startLine, startCol);
+                return token(TokenType.RIGHT_BRACKET, "]", startLine, startCol);
             case ';':
                 advance();
-                return new Token(TokenType.JS_PUNCTUATION, ";", startLine, startCol);
+                return token(TokenType.JS_PUNCTUATION, ";", startLine, startCol);
             case ',':
                 advance();
-                return new Token(TokenType.JS_PUNCTUATION, ",", startLine, startCol);
+                return token(TokenType.JS_PUNCTUATION, ",", startLine, startCol);
             case '.':
                 advance();
-                return new Token(TokenType.JS_PUNCTUATION, ".", startLine, startCol);
+                return token(TokenType.JS_PUNCTUATION, ".", startLine, startCol);
             case ':':
                 advance();
-                return new Token(TokenType.JS_PUNCTUATION, ":", startLine, startCol);
+                return token(TokenType.JS_PUNCTUATION, ":", startLine, startCol);
             case '?':
                 advance();
-                return new Token(TokenType.JS_PUNCTUATION, "?", startLine, startCol);
+                return token(TokenType.JS_PUNCTUATION, "?", startLine, startCol);
         }
         
         // Comments
@@ -209,7 +251,7 @@ public class Lexer {
         
         // Unknown character - advance and continue
         advance();
-        return new Token(TokenType.JS_PUNCTUATION, String.valueOf(current), startLine, startCol);
+        return token(TokenType.JS_PUNCTUATION, String.valueOf(current), startLine, startCol);
     }
     
     private Token parseDOCTYPE() {
@@ -227,7 +269,7 @@ public class Lexer {
         }
         
         String doctype = sb.toString();
-        return new Token(TokenType.HTML_DOCTYPE, doctype, startLine, startCol);
+        return token(TokenType.HTML_DOCTYPE, doctype, startLine, startCol);
     }
     
     private Token parseOpeningTag() {
@@ -261,7 +303,7 @@ public class Lexer {
             }
         }
         
-        return new Token(TokenType.HTML_TAG_OPEN, sb.toString(), startLine, startCol);
+        return token(TokenType.HTML_TAG_OPEN, sb.toString(), startLine, startCol);
     }
     
     private Token parseClosingTag() {
@@ -279,7 +321,7 @@ public class Lexer {
             }
         }
         
-        return new Token(TokenType.HTML_TAG_CLOSE, sb.toString(), startLine, startCol);
+        return token(TokenType.HTML_TAG_CLOSE, sb.toString(), startLine, startCol);
     }
     
     private Token parseHTMLText() {
@@ -301,7 +343,12 @@ public class Lexer {
             return nextToken(); // Skip empty text
         }
         
-        return new Token(TokenType.HTML_TEXT, text, startLine, startCol);
+        // The value is trimmed, so the span ends at the last non-blank character
+        int end = position;
+        while (end > tokenStart && input.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return new Token(TokenType.HTML_TEXT, text, startLine, startCol, tokenStart, end);
     }
     
     private Token parseScriptTag(boolean isOpen) {
@@ -319,7 +366,7 @@ public class Lexer {
                     break;
                 }
             }
-            return new Token(TokenType.SCRIPT_OPEN, sb.toString(), startLine, startCol);
+            return token(TokenType.SCRIPT_OPEN, sb.toString(), startLine, startCol);
         } else {
             // Read </script>
             while (position < input.length()) {
@@ -330,7 +377,7 @@ public class Lexer {
                     break;
                 }
             }
-            return new Token(TokenType.SCRIPT_CLOSE, sb.toString(), startLine, startCol);
+            return token(TokenType.SCRIPT_CLOSE, sb.toString(), startLine, startCol);
         }
     }
     
@@ -359,7 +406,7 @@ public class Lexer {
             advance();
         }
         
-        return new Token(TokenType.JS_LITERAL_STRING, sb.toString(), startLine, startCol);
+        return token(TokenType.JS_LITERAL_STRING, sb.toString(), startLine, startCol);
     }
     
     private Token parseNumber() {
@@ -377,7 +424,7 @@ public class Lexer {
             }
         }
         
-        return new Token(TokenType.JS_LITERAL_NUMBER, sb.toString(), startLine, startCol);
+        return token(TokenType.JS_LITERAL_NUMBER, sb.toString(), startLine, startCol);
     }
     
     private Token parseIdentifierOrKeyword() {
@@ -400,19 +447,19 @@ public class Lexer {
         // Check if it's a keyword
         for (String keyword : JS_KEYWORDS) {
             if (value.equals(keyword)) {
-                return new Token(TokenType.JS_KEYWORD, value, startLine, startCol);
+                return token(TokenType.JS_KEYWORD, value, startLine, startCol);
             }
         }
         
         // Check for boolean/null literals
         if (value.equals("true") || value.equals("false")) {
-            return new Token(TokenType.JS_LITERAL_BOOLEAN, value, startLine, startCol);
+            return token(TokenType.JS_LITERAL_BOOLEAN, value, startLine, startCol);
         }
         if (value.equals("null")) {
-            return new Token(TokenType.JS_LITERAL_NULL, value, startLine, startCol);
+            return token(TokenType.JS_LITERAL_NULL, value, startLine, startCol);
         }
         
-        return new Token(TokenType.JS_IDENTIFIER, value, startLine, startCol);
+        return token(TokenType.JS_IDENTIFIER, value, startLine, startCol);
     }
     
     private Token parseOperator() {
@@ -429,13 +476,13 @@ public class Lexer {
                 twoChar.equals("/=") || twoChar.equals("===") || twoChar.equals("!==") ||
                 twoChar.equals("&&") || twoChar.equals("||")) {
                 advance(2);
-                return new Token(TokenType.JS_OPERATOR, twoChar, startLine, startCol);
+                return token(TokenType.JS_OPERATOR, twoChar, startLine, startCol);
             }
         }
         
         // Single character operators
         advance();
-        return new Token(TokenType.JS_OPERATOR, String.valueOf(current), startLine, startCol);
+        return token(TokenType.JS_OPERATOR, String.valueOf(current), startLine, startCol);
     }
     
     private Token parseLineComment() {
@@ -452,7 +499,7 @@ public class Lexer {
             }
         }
         
-        return new Token(TokenType.COMMENT, sb.toString(), startLine, startCol);
+        return token(TokenType.COMMENT, sb.toString(), startLine, startCol);
     }
     
     private Token parseBlockComment() {
@@ -476,7 +523,14 @@ public class Lexer {
             }
         }
         
-        return new Token(TokenType.COMMENT, sb.toString(), startLine, startCol);
+        return token(TokenType.COMMENT, sb.toString(), startLine, startCol);
+    }
+    
+    /**
+     * Creates a token spanning from the start of the current token to the current position.
+     */
+    private Token token(TokenType type, String value, int line, int column) {
+        return new Token(type, value, line, column, tokenStart, position);
     }
     
     private boolean isOperator(char c) {
@@ -11,9 +11,11 @@ public class Token {
     private final String value;
     private final int lineNumber;
     private final int columnNumber;
+    private final int startOffset;
+    private final int endOffset;
     
     /**
-     * Creates a new token.
+     * Creates a new token without source offsets.
      * 
      * @param type The type of the token
      * @param value The actual text value of the token
@@ -21,10 +23,27 @@ public class Token {
      * @param columnNumber The column number where this token starts (1-indexed)
      */
     public Token(TokenType type, String value, int lineNumber, int columnNumber) {
+        this(type, value, lineNumber, columnNumber, -1, -1);
+    }
+    
+    /**
+     * Creates a new token.
+     * 
+     * @param type The type of the token
+     * @param value The actual text value of the token
+     * @param lineNumber The line number where this token appears (1-indexed)
+     * @param columnNumber The column number where this token starts (1-indexed)
+     * @param startOffset Offset of the first character in the source (0-indexed, inclusive)
+     * @param endOffset Offset just past the last character in the source (exclusive)
+     */
+    public Token(TokenType type, String value, int lineNumber, int columnNumber,
+                 int startOffset, int endOffset) {
         this.type = type;
         this.value = value;
         this.lineNumber = lineNumber;
         this.columnNumber = columnNumber;
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
     }
     
     public TokenType getType() {
@@ -43,6 +62,24 @@ public class Token {
         return columnNumber;
     }
     
+    /**
+     * Gets the source offset where this token starts.
+     * 
+     * @return Start offset (inclusive), or -1 if unknown
+     */
+    public int getStartOffset() {
+        return startOffset;
+    }
+    
+    /**
+     * Gets the source offset just past the end of this token.
+     * 
+     * @return End offset (exclusive), or -1 if unknown
+     */
+    public int getEndOffset() {
+        return endOffset;
+    }
+    
     @Override
     public String toString() {
         return String.format("Token(%s, '%s', line %d, col %d)", 
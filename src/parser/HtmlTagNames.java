@@ -0,0 +1,132 @@
+package parser;
+
+/**
+ * Table of known HTML tag names.
+ * Resolves a tag name straight from the token text to a shared lowercase
+ * constant, so well-known tags are neither lowercased nor copied per occurrence.
+ * Also records which elements are void (never have a closing tag).
+ * 
+ * @author eduardo
+ */
+public final class HtmlTagNames {
+    private static final String[] KNOWN_TAGS = {
+        "html", "head", "body", "title", "meta", "link", "script", "style", "base", "noscript",
+        "div", "span", "p", "a", "img", "br", "hr", "wbr", "pre", "code",
+        "h1", "h2", "h3", "h4", "h5", "h6", "header", "footer", "nav", "main",
+        "section", "article", "aside", "figure", "figcaption", "blockquote",
+        "ul", "ol", "li", "dl", "dt", "dd",
+        "table", "caption", "thead", "tbody", "tfoot", "tr", "th", "td", "col", "colgroup",
+        "form", "fieldset", "legend", "label", "input", "button", "select", "option", "optgroup",
+        "textarea", "output", "datalist", "progress", "meter",
+        "strong", "em", "b", "i", "u", "s", "small", "sub", "sup", "mark", "abbr", "cite", "q",
+        "iframe", "embed", "object", "param", "canvas", "svg", "video", "audio", "source", "track",
+        "picture", "map", "area", "template", "details", "summary", "dialog"
+    };
+    
+    private static final String[] VOID_TAGS = {
+        "area", "base", "br", "col", "embed", "hr", "img", "input",
+        "link", "meta", "param", "source", "track", "wbr"
+    };
+    
+    // Open-addressing hash table keyed by the lowercase ASCII name
+    private static final int TABLE_SIZE = 256;
+    private static final String[] TABLE = new String[TABLE_SIZE];
+    private static final boolean[] VOID = new boolean[TABLE_SIZE];
+    
+    static {
+        for (String name : KNOWN_TAGS) {
+            TABLE[slotFor(name, 0, name.length())] = name;
+        }
+        for (String name : VOID_TAGS) {
+            VOID[slotFor(name, 0, name.length())] = true;
+        }
+    }
+    
+    private HtmlTagNames() {
+    }
+    
+    /**
+     * Gets the lowercase tag name for a region of text.
+     * Known tags resolve to a shared constant without allocating; other names
+     * are copied and lowercased.
+     * 
+     * @param source Text containing the tag name
+     * @param start Start of the name (inclusive)
+     * @param end End of the name (exclusive)
+     * @return Lowercase tag name
+     */
+    static String toTagName(String source, int start, int end) {
+        int hash = hash(source, start, end);
+        if (hash >= 0) {
+            for (int slot = hash; TABLE[slot] != null; slot = (slot + 1) & (TABLE_SIZE - 1)) {
+                if (matches(TABLE[slot], source, start, end)) {
+                    return TABLE[slot];
+                }
+            }
+        }
+        return source.substring(start, end).toLowerCase();
+    }
+    
+    /**
+     * Checks if a tag is a void element (e.g. br, img, input).
+     * 
+     * @param tagName Lowercase tag name
+     * @return true if the element never has a closing tag, false otherwise
+     */
+    public static boolean isVoidElement(String tagName) {
+        int hash = hash(tagName, 0, tagName.length());
+        if (hash < 0) {
+            return false;
+        }
+        for (int slot = hash; TABLE[slot] != null; slot = (slot + 1) & (TABLE_SIZE - 1)) {
+            if (TABLE[slot].equals(tagName)) {
+                return VOID[slot];
+            }
+        }
+        return false;
+    }
+    
+    private static int slotFor(String name, int start, int end) {
+        int slot = hash(name, start, end);
+        while (TABLE[slot] != null && !TABLE[slot].equals(name)) {
+            slot = (slot + 1) & (TABLE_SIZE - 1);
+        }
+        return slot;
+    }
+    
+    /**
+     * Hashes a region case-insensitively.
+     * Returns -1 for names with non-ASCII characters, which are never known tags.
+     */
+    private static int hash(String source, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            char c = source.charAt(i);
+            if (c >= 128) {
+                return -1;
+            }
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            h = h * 31 + c;
+        }
+        h ^= (h >>> 16);
+        return h & (TABLE_SIZE - 1);
+    }
+    
+    private static boolean matches(String name, String source, int start, int end) {
+        if (name.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = source.charAt(start + i);
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            if (c != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
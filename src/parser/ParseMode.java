@@ -0,0 +1,20 @@
+package parser;
+
+/**
+ * Strategies the parser can use to build the AST.
+ * 
+ * @author eduardo
+ */
+public enum ParseMode {
+    /**
+     * Parse HTML and JavaScript in a single pass on the calling thread (default).
+     */
+    SEQUENTIAL,
+    
+    /**
+     * Parse the HTML skeleton first, then parse each script block into its
+     * ScriptNode on a work-stealing pool. Blocks only share declared variables,
+     * which are merged back in document order.
+     */
+    PARALLEL_SCRIPTS
+}
@@ -1,8 +1,10 @@
 package parser;
 
 import ast.Node;
+import ast.NodeNumbering;
 import ast.html.AttributeNode;
 import ast.html.DocumentNode;
+import ast.html.ElementIdIndex;
 import ast.html.TagNode;
 import ast.html.TextNode;
 import ast.js.AssignmentNode;
@@ -11,14 +13,22 @@ import ast.js.ConstantNode;
 import ast.js.ExpressionNode;
 import ast.js.FunctionNode;
 import ast.js.IdentifierNode;
+import ast.js.LiteralKind;
+import ast.js.LiteralNode;
 import ast.js.ScriptNode;
 import ast.js.VariableNode;
+import lexer.BracketTable;
 import lexer.Lexer;
 import lexer.Token;
 import lexer.TokenType;
+import profiling.JfrEvents;
+import profiling.ParseEvent;
+import utils.CancellationToken;
+import utils.StringLiterals;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Stack;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * State machine parser that builds an Abstract Syntax Tree (AST) from tokens.
@@ -27,15 +37,28 @@ import java.util.Stack;
  * @author eduardo
  */
 public class Parser {
+    // Returned past the last token; tokens are immutable, so one instance is shared
+    private static final Token END_OF_INPUT = new Token(TokenType.EOF, "", 0, 0);
+    
+    private final String input;
     private final List<Token> tokens;
+    private final BracketTable bracketTable; // Matching closer for every bracket and script tag
     private int currentTokenIndex;
     private ParserState currentState;
     private final DocumentNode documentNode;
-    private final Stack<TagNode> tagStack; // For tracking nested HTML tags
+    private final TagStack tagStack; // For tracking nested HTML tags
     private ScriptNode currentScriptNode;
+    private ParseMode parseMode;
+    private ParserProfile profile;
+    private ForkJoinPool scriptPool; // Pool for PARALLEL_SCRIPTS mode
+    private final List<ScriptBlock> scriptBlocks; // Script blocks deferred by the HTML pass
+    
+    private final StringBuilder scratch; // Reusable buffer for building dotted names
+    private final CancellationToken cancellation; // Stops lexing and parsing early, may be null
+    private TagEventListener tagEventListener; // Receives opening and closing tags, may be null
     
     // Context tracking for validators
-    private final List<String> htmlElementIds; // Track HTML element IDs
+    private final ElementIdIndex elementIdIndex; // Track HTML element IDs
     private final List<String> declaredVariables; // Track declared variables for scope checking
     
     /**
@@ -44,23 +67,134 @@ public class Parser {
      * @param input The HTML/JavaScript code to parse
      */
     public Parser(String input) {
+        this(input, new ElementIdIndex());
+    }
+    
+    /**
+     * Creates a new parser that records element IDs into the given index.
+     * Lets validators created before parsing share the index the parser fills.
+     * 
+     * @param input The HTML/JavaScript code to parse
+     * @param elementIdIndex The index to fill with HTML element IDs
+     */
+    public Parser(String input, ElementIdIndex elementIdIndex) {
+        this(input, elementIdIndex, null);
+    }
+    
+    /**
+     * Creates a parser that stops lexing and parsing once the token is cancelled.
+     * The document built so far is still returned by {@link #parse()}.
+     * 
+     * @param input The HTML/JavaScript code to parse
+     * @param cancellation Cancellation token, or null to always parse the whole input
+     */
+    public Parser(String input, CancellationToken cancellation) {
+        this(input, new ElementIdIndex(), cancellation);
+    }
+    
+    /**
+     * Creates a parser that records element IDs into the given index and stops
+     * lexing and parsing once the token is cancelled.
+     * 
+     * @param input The HTML/JavaScript code to parse
+     * @param elementIdIndex The index to fill with HTML element IDs
+     * @param cancellation Cancellation token, or null to always parse the whole input
+     */
+    public Parser(String input, ElementIdIndex elementIdIndex, CancellationToken cancellation) {
         Lexer lexer = new Lexer(input);
+        lexer.setCancellationToken(cancellation);
+        this.input = input;
+        this.cancellation = cancellation;
         this.tokens = lexer.tokenize();
+        this.bracketTable = lexer.getBracketTable();
         this.currentTokenIndex = 0;
         this.currentState = ParserState.HTML_MODE;
         this.documentNode = new DocumentNode(1, 1);
-        this.tagStack = new Stack<>();
-        this.htmlElementIds = new ArrayList<>();
+        this.tagStack = new TagStack();
+        this.elementIdIndex = elementIdIndex;
         this.declaredVariables = new ArrayList<>();
+        this.parseMode = ParseMode.SEQUENTIAL;
+        this.profile = ParserProfile.FULL;
+        this.scriptBlocks = new ArrayList<>();
+        this.scratch = new StringBuilder(64);
+    }
+    
+    /**
+     * Creates a parser for a single script block of an already tokenized document.
+     * Shares the token list and bracket table of the parent, which are read-only.
+     */
+    private Parser(Parser parent, ScriptNode scriptNode) {
+        this.input = parent.input;
+        this.cancellation = parent.cancellation;
+        this.tokens = parent.tokens;
+        this.bracketTable = parent.bracketTable;
+        this.currentTokenIndex = 0;
+        this.currentState = ParserState.SCRIPT_MODE;
+        this.documentNode = parent.documentNode;
+        this.tagStack = new TagStack();
+        this.elementIdIndex = new ElementIdIndex();
+        this.declaredVariables = new ArrayList<>();
+        this.currentScriptNode = scriptNode;
+        this.parseMode = ParseMode.SEQUENTIAL;
+        this.profile = ParserProfile.FULL;
+        this.scriptBlocks = new ArrayList<>();
+        this.scratch = new StringBuilder(64);
+    }
+    
+    /**
+     * Sets the parse mode. Must be called before {@link #parse()}.
+     * 
+     * @param parseMode The parse mode to use
+     */
+    public void setParseMode(ParseMode parseMode) {
+        this.parseMode = parseMode;
+    }
+    
+    /**
+     * Sets the parser profile. Must be called before {@link #parse()}.
+     * 
+     * @param profile The profile to use (FULL by default)
+     */
+    public void setProfile(ParserProfile profile) {
+        this.profile = profile;
+    }
+    
+    /**
+     * Sets the pool used to parse script blocks in PARALLEL_SCRIPTS mode.
+     * If not set, the common fork/join pool is used.
+     * 
+     * @param scriptPool Work-stealing pool for script blocks
+     */
+    public void setScriptPool(ForkJoinPool scriptPool) {
+        this.scriptPool = scriptPool;
+    }
+    
+    /**
+     * Sets a listener that receives every opening and closing tag while parsing.
+     * Must be called before {@link #parse()}.
+     * 
+     * @param tagEventListener The listener, or null for none
+     */
+    public void setTagEventListener(TagEventListener tagEventListener) {
+        this.tagEventListener = tagEventListener;
     }
     
     /**
      * Parses the input and builds the AST.
+     * If the cancellation token is cancelled, stops at the next top-level
+     * token and returns the document built so far.
      * 
      * @return The root DocumentNode of the AST
      */
     public DocumentNode parse() {
-        while (currentTokenIndex < tokens.size()) {
+        ParseEvent event = JfrEvents.isRecorderInitialized() ? new ParseEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        documentNode.setSource(input);
+        documentNode.setSourceSpan(0, input.length());
+        
+        while (currentTokenIndex < tokens.size() && !CancellationToken.isCancelled(cancellation)) {
             Token token = getCurrentToken();
             
             if (token.getType() == TokenType.EOF) {
@@ -80,6 +214,22 @@ public class Parser {
             }
         }
         
+        if (!scriptBlocks.isEmpty()) {
+            parseScriptBlocks();
+        }
+        
+        if (tagEventListener != null && !CancellationToken.isCancelled(cancellation)) {
+            tagEventListener.endOfInput();
+        }
+        
+        // Give every node a dense ID so analyses can store results in arrays
+        NodeNumbering.number(documentNode);
+        
+        if (event != null && event.shouldCommit()) {
+            event.tokenCount = tokens.size();
+            event.nodeCount = documentNode.getNodeCount();
+            event.commit();
+        }
         return documentNode;
     }
     
@@ -101,14 +251,37 @@ public class Parser {
                 parseHTMLText(token);
                 break;
             case SCRIPT_OPEN:
-                // Enter JavaScript mode
-                currentState = ParserState.SCRIPT_MODE;
-                currentScriptNode = new ScriptNode(token.getLineNumber(), token.getColumnNumber());
+                int closeIndex = getScriptEnd(currentTokenIndex);
+                ScriptNode scriptNode = new ScriptNode(token.getLineNumber(), token.getColumnNumber());
+                scriptNode.setSourceSpan(token.getStartOffset(), tokens.get(closeIndex).getEndOffset());
                 // Add script node to current tag's children
                 if (!tagStack.isEmpty()) {
-                    tagStack.peek().addChild(currentScriptNode);
+                    tagStack.peek().addChild(scriptNode);
+                }
+                if (tagEventListener != null) {
+                    // Script content has no tags, so both events can be sent now
+                    tagEventListener.tagOpened("script", false, token.getLineNumber());
+                    Token closeToken = tokens.get(closeIndex);
+                    if (closeToken.getType() == TokenType.SCRIPT_CLOSE) {
+                        tagEventListener.tagClosed("script", closeToken.getLineNumber());
+                    }
+                }
+                if (profile == ParserProfile.STRUCTURE_ONLY) {
+                    // No JavaScript nodes needed: skip the whole block in O(1)
+                    currentTokenIndex = closeIndex;
+                    advanceToken();
+                } else if (parseMode == ParseMode.PARALLEL_SCRIPTS) {
+                    // Defer the block and jump straight to its closing tag
+                    scriptBlocks.add(new ScriptBlock(scriptNode, currentTokenIndex + 1, closeIndex));
+                    currentTokenIndex = closeIndex;
+                    advanceToken();
+                } else {
+                    // Enter JavaScript mode for the block, bounded by its closing tag
+                    currentState = ParserState.SCRIPT_MODE;
+                    currentScriptNode = scriptNode;
+                    parseScriptBlock(currentTokenIndex + 1, closeIndex);
+                    currentTokenIndex = closeIndex;
                 }
-                advanceToken();
                 break;
             case COMMENT:
                 // Skip comments
@@ -120,6 +293,56 @@ public class Parser {
         }
     }
     
+    /**
+     * Gets the token index where a script block ends.
+     * 
+     * @param openIndex Token index of the SCRIPT_OPEN token
+     * @return Index of the matching SCRIPT_CLOSE, or of EOF if the script is unterminated
+     */
+    private int getScriptEnd(int openIndex) {
+        int closeIndex = bracketTable.getMatch(openIndex);
+        return closeIndex != BracketTable.NO_MATCH ? closeIndex : tokens.size() - 1;
+    }
+    
+    /**
+     * Parses the deferred script blocks on the fork/join pool and merges
+     * their declared variables in document order.
+     */
+    private void parseScriptBlocks() {
+        Parser[] blockParsers = new Parser[scriptBlocks.size()];
+        ScriptBlockTask task = new ScriptBlockTask(blockParsers, 0, blockParsers.length);
+        if (blockParsers.length == 1) {
+            task.compute();
+        } else {
+            ForkJoinPool pool = scriptPool != null ? scriptPool : ForkJoinPool.commonPool();
+            pool.invoke(task);
+        }
+        
+        for (Parser blockParser : blockParsers) {
+            declaredVariables.addAll(blockParser.declaredVariables);
+        }
+        scriptBlocks.clear();
+    }
+    
+    /**
+     * Parses the tokens of a single script block into the current script node.
+     * Stops at the block's closing tag even if a statement was left incomplete,
+     * so a malformed statement can never consume the HTML that follows the script.
+     * 
+     * @param start Index of the first token after the opening script tag
+     * @param end Index of the closing script tag (or EOF)
+     */
+    private void parseScriptBlock(int start, int end) {
+        currentTokenIndex = start;
+        while (currentTokenIndex < end && !CancellationToken.isCancelled(cancellation)) {
+            Token token = getCurrentToken();
+            if (token.getType() == TokenType.EOF) {
+                break;
+            }
+            parseJavaScriptMode(token);
+        }
+    }
+    
     /**
      * Parses tokens in JavaScript mode.
      */
@@ -165,8 +388,8 @@ public class Parser {
      * Parses a DOCTYPE declaration.
      */
     private void parseDOCTYPE(Token token) {
-        TagNode doctypeNode = new TagNode("!DOCTYPE", false, false, 
-                                          token.getLineNumber(), token.getColumnNumber());
+        TagNode doctypeNode = spanOf(new TagNode("!DOCTYPE", false, false, 
+                                                 token.getLineNumber(), token.getColumnNumber()), token);
         documentNode.setDoctype(doctypeNode);
         advanceToken();
     }
@@ -183,28 +406,25 @@ public class Parser {
         // Check if there are multiple tags in this token (e.g., <html><head><meta...>)
         // The lexer should create separate tokens, but handle edge cases
         if (tagContent.indexOf('<', 1) > 0) {
-            // Multiple tags in one token - split them
-            String remaining = tagContent;
+            // Multiple tags in one token - parse each one in place
+            int position = 0;
             
-            while (remaining.length() > 0 && remaining.contains("<")) {
+            while (position < tagContent.length()) {
                 // Find the next complete tag
-                int tagStart = remaining.indexOf('<');
+                int tagStart = tagContent.indexOf('<', position);
                 if (tagStart < 0) break;
                 
                 // Find matching closing >
-                int tagEnd = findTagEnd(remaining, tagStart);
+                int tagEnd = findTagEnd(tagContent, tagStart);
                 if (tagEnd < 0) break;
                 
-                // Extract this tag
-                String singleTag = remaining.substring(tagStart, tagEnd + 1);
-                remaining = remaining.substring(tagEnd + 1);
-                
                 // Parse this single tag
-                parseSingleHTMLTag(singleTag, token.getLineNumber());
+                parseSingleHTMLTag(tagContent, tagStart, tagEnd + 1, token);
+                position = tagEnd + 1;
             }
         } else {
             // Single tag - parse normally
-            parseSingleHTMLTag(tagContent, token.getLineNumber());
+            parseSingleHTMLTag(tagContent, 0, tagContent.length(), token);
         }
         
         advanceToken();
@@ -234,34 +454,49 @@ public class Parser {
     
     /**
      * Parses a single HTML tag.
+     * The tag is read in place from the token's text, without copying it.
+     * 
+     * @param source Text of the token containing the tag
+     * @param tagStart Position of the tag's < in the text
+     * @param tagEnd Position just past the tag's > in the text
+     * @param token The token the tag was read from
      */
-    private void parseSingleHTMLTag(String tagContent, int lineNumber) {
-        String tagName = extractTagName(tagContent);
+    private void parseSingleHTMLTag(String source, int tagStart, int tagEnd, Token token) {
+        int lineNumber = token.getLineNumber();
+        int columnNumber = token.getColumnNumber() + tagStart;
+        int startOffset = token.getStartOffset() + tagStart;
+        String tagName = extractTagName(source, tagStart, tagEnd);
         
         // Debug: Check if we're parsing html tag
         if (tagName.equalsIgnoreCase("html") && tagStack.isEmpty()) {
             // This is the html tag at the root level
         }
         
-        TagNode tagNode = new TagNode(tagName, false, false, lineNumber, 1);
-        
-        // Parse attributes
-        parseTagAttributes(tagContent, tagNode);
-        
         // Check if self-closing
-        if (tagContent.endsWith("/>") || tagContent.endsWith(" /")) {
-            tagNode = new TagNode(tagName, false, true, lineNumber, 1);
-            parseTagAttributes(tagContent, tagNode);
+        boolean selfClosing = source.startsWith("/>", tagEnd - 2) || source.startsWith(" /", tagEnd - 2);
+        if (tagEventListener != null) {
+            if (source.startsWith("</", tagStart)) {
+                tagEventListener.tagClosed(tagName, lineNumber);
+            } else {
+                tagEventListener.tagOpened(tagName, selfClosing, lineNumber);
+            }
         }
+        TagNode tagNode = new TagNode(tagName, false, selfClosing, lineNumber, columnNumber);
+        tagNode.setSourceSpan(startOffset, startOffset + (tagEnd - tagStart));
+        
+        // Parse attributes
+        parseTagAttributes(source, tagStart, tagEnd, tagNode);
         
         // Track HTML element IDs
         for (AttributeNode attr : tagNode.getAttributes()) {
-            if (attr.getName().equals("id")) {
+            if (attr.getName().equalsIgnoreCase("id")) {
                 String idValue = attr.getValue();
                 if (idValue != null && !idValue.isEmpty()) {
                     // Remove quotes if present
-                    idValue = idValue.replaceAll("^[\"']|[\"']$", "");
-                    htmlElementIds.add(idValue);
+                    idValue = StringLiterals.unquote(idValue);
+                    if (!idValue.isEmpty()) {
+                        elementIdIndex.add(idValue, tagNode, lineNumber);
+                    }
                 }
             }
         }
@@ -296,7 +531,10 @@ public class Parser {
      */
     private void parseHTMLClosingTag(Token token) {
         String tagContent = token.getValue();
-        String tagName = extractTagName(tagContent);
+        String tagName = extractTagName(tagContent, 0, tagContent.length());
+        if (tagEventListener != null) {
+            tagEventListener.tagClosed(tagName, token.getLineNumber());
+        }
         
         // Pop from stack until we find matching tag
         while (!tagStack.isEmpty()) {
@@ -315,65 +553,132 @@ public class Parser {
     private void parseHTMLText(Token token) {
         String text = token.getValue().trim();
         if (!text.isEmpty() && !tagStack.isEmpty()) {
-            TextNode textNode = new TextNode(text, token.getLineNumber(), token.getColumnNumber());
+            TextNode textNode = spanOf(new TextNode(text, token.getLineNumber(), token.getColumnNumber()), token);
             tagStack.peek().addChild(textNode);
         }
         advanceToken();
     }
     
     /**
-     * Extracts tag name from tag content.
+     * Extracts the lowercase tag name from a tag, e.g. "div" from "<div id='x'>" or "</div>".
+     * Known tag names come from a shared table, so no string is allocated for them.
      */
-    private String extractTagName(String tagContent) {
-        // Remove < and >
-        String cleaned = tagContent.replaceAll("^<|>$", "").trim();
-        
-        // Remove closing tag marker
-        cleaned = cleaned.replaceAll("^/", "");
+    private String extractTagName(String source, int tagStart, int tagEnd) {
+        // Skip < and >, surrounding whitespace and the closing tag marker
+        int start = tagStart < tagEnd && source.charAt(tagStart) == '<' ? tagStart + 1 : tagStart;
+        int end = tagEnd > start && source.charAt(tagEnd - 1) == '>' ? tagEnd - 1 : tagEnd;
+        start = skipBlanks(source, start, end);
+        end = trimBlanks(source, start, end);
+        if (start < end && source.charAt(start) == '/') {
+            start++;
+        }
         
-        // Extract first word (tag name)
-        String[] parts = cleaned.split("\\s+");
-        if (parts.length > 0) {
-            return parts[0].toLowerCase();
+        // Tag name is the first word
+        int nameEnd = start;
+        while (nameEnd < end && !isAttributeSeparator(source.charAt(nameEnd))) {
+            nameEnd++;
         }
-        return cleaned;
+        return HtmlTagNames.toTagName(source, start, nameEnd);
     }
     
     /**
-     * Parses attributes from a tag string.
+     * Parses attributes from a tag.
+     * Scans the tag text in place; only attribute names and values are copied out.
      */
-    private void parseTagAttributes(String tagContent, TagNode tagNode) {
-        // Simple attribute parsing - extract name="value" pairs
+    private void parseTagAttributes(String source, int tagStart, int tagEnd, TagNode tagNode) {
+        // Simple attribute parsing - extract name="value" pairs separated by whitespace
         // This is a simplified version; a full parser would handle more cases
-        String cleaned = tagContent.replaceAll("^<|>$", "").trim();
-        String[] parts = cleaned.split("\\s+");
-        
-        if (parts.length > 1) {
-            for (int i = 1; i < parts.length; i++) {
-                String part = parts[i];
-                if (part.contains("=")) {
-                    String[] attrParts = part.split("=", 2);
-                    if (attrParts.length == 2) {
-                        String name = attrParts[0].trim();
-                        String value = attrParts[1].trim();
-                        // Remove quotes from value
-                        value = value.replaceAll("^[\"']|[\"']$", "");
-                        AttributeNode attr = new AttributeNode(name, value, 
-                                                               tagNode.getLineNumber(), 
-                                                               tagNode.getColumnNumber());
-                        tagNode.addAttribute(attr);
-                    }
-                } else if (!part.equals("/")) {
-                    // Boolean attribute (no value)
-                    AttributeNode attr = new AttributeNode(part, "", 
-                                                         tagNode.getLineNumber(), 
-                                                         tagNode.getColumnNumber());
-                    tagNode.addAttribute(attr);
+        int start = tagStart < tagEnd && source.charAt(tagStart) == '<' ? tagStart + 1 : tagStart;
+        int end = tagEnd > start && source.charAt(tagEnd - 1) == '>' ? tagEnd - 1 : tagEnd;
+        start = skipBlanks(source, start, end);
+        end = trimBlanks(source, start, end);
+        
+        // Skip the tag name
+        int position = start;
+        while (position < end && !isAttributeSeparator(source.charAt(position))) {
+            position++;
+        }
+        
+        // Offset of the tag text in the source, for attribute spans
+        int sourceBase = tagNode.getStartOffset() - tagStart;
+        
+        while (position < end) {
+            while (position < end && isAttributeSeparator(source.charAt(position))) {
+                position++;
+            }
+            if (position >= end) {
+                break;
+            }
+            int partStart = position;
+            int equals = -1;
+            while (position < end && !isAttributeSeparator(source.charAt(position))) {
+                if (equals < 0 && source.charAt(position) == '=') {
+                    equals = position;
+                }
+                position++;
+            }
+            int partEnd = position;
+            
+            AttributeNode attr;
+            if (equals >= 0) {
+                int nameStart = skipBlanks(source, partStart, equals);
+                String name = source.substring(nameStart, trimBlanks(source, nameStart, equals));
+                int valueStart = skipBlanks(source, equals + 1, partEnd);
+                int valueEnd = trimBlanks(source, valueStart, partEnd);
+                // Remove quotes from value
+                if (valueStart < valueEnd && isQuote(source.charAt(valueStart))) {
+                    valueStart++;
+                }
+                if (valueEnd > valueStart && isQuote(source.charAt(valueEnd - 1))) {
+                    valueEnd--;
                 }
+                attr = new AttributeNode(name, source.substring(valueStart, valueEnd), 
+                                         tagNode.getLineNumber(), 
+                                         tagNode.getColumnNumber());
+            } else if (partEnd - partStart == 1 && source.charAt(partStart) == '/') {
+                continue;
+            } else {
+                // Boolean attribute (no value)
+                attr = new AttributeNode(source.substring(partStart, partEnd), "", 
+                                         tagNode.getLineNumber(), 
+                                         tagNode.getColumnNumber());
             }
+            attr.setSourceSpan(sourceBase + partStart, sourceBase + partEnd);
+            tagNode.addAttribute(attr);
         }
     }
     
+    /**
+     * Skips leading characters that String.trim() would remove.
+     */
+    private static int skipBlanks(String source, int start, int end) {
+        while (start < end && source.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+    
+    /**
+     * Skips trailing characters that String.trim() would remove.
+     */
+    private static int trimBlanks(String source, int start, int end) {
+        while (end > start && source.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+    
+    /**
+     * Checks for the whitespace that separates a tag name from its attributes.
+     */
+    private static boolean isAttributeSeparator(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u000B';
+    }
+    
+    private static boolean isQuote(char c) {
+        return c == '"' || c == '\'';
+    }
+    
     /**
      * Parses a JavaScript function declaration.
      */
@@ -393,16 +698,19 @@ public class Parser {
             
             // Parse parameters
             if (getCurrentToken().getType() == TokenType.LEFT_PAREN) {
+                int closeIndex = bracketTable.getMatch(currentTokenIndex);
                 advanceToken(); // Skip (
-                parseFunctionParameters(functionNode);
+                parseFunctionParameters(functionNode, closeIndex);
             }
             
             // Parse function body
             if (getCurrentToken().getType() == TokenType.LEFT_BRACE) {
+                int closeIndex = bracketTable.getMatch(currentTokenIndex);
                 advanceToken(); // Skip {
-                parseFunctionBody(functionNode);
+                parseFunctionBody(functionNode, closeIndex);
             }
             
+            spanFrom(functionNode, functionToken);
             if (currentScriptNode != null) {
                 currentScriptNode.addStatement(functionNode);
             }
@@ -412,15 +720,18 @@ public class Parser {
     }
     
     /**
-     * Parses function parameters.
+     * Parses function parameters up to the matching closing parenthesis.
+     * If the list is unterminated, stops at the end of the script instead.
+     * 
+     * @param closeIndex Token index of the matching ), or BracketTable.NO_MATCH
      */
-    private void parseFunctionParameters(FunctionNode functionNode) {
-        while (getCurrentToken().getType() != TokenType.RIGHT_PAREN) {
+    private void parseFunctionParameters(FunctionNode functionNode, int closeIndex) {
+        while (!isAtBlockEnd(closeIndex) && getCurrentToken().getType() != TokenType.RIGHT_PAREN) {
             Token paramToken = getCurrentToken();
             if (paramToken.getType() == TokenType.JS_IDENTIFIER) {
-                IdentifierNode param = new IdentifierNode(paramToken.getValue(),
-                                                         paramToken.getLineNumber(),
-                                                         paramToken.getColumnNumber());
+                IdentifierNode param = spanOf(new IdentifierNode(paramToken.getValue(),
+                                                                 paramToken.getLineNumber(),
+                                                                 paramToken.getColumnNumber()), paramToken);
                 functionNode.addParameter(param);
                 advanceToken();
                 
@@ -432,27 +743,23 @@ public class Parser {
                 advanceToken();
             }
         }
-        advanceToken(); // Skip )
+        if (getCurrentToken().getType() == TokenType.RIGHT_PAREN) {
+            advanceToken(); // Skip )
+        }
     }
     
     /**
-     * Parses function body statements.
+     * Parses function body statements up to the matching closing brace.
+     * The closer comes from the bracket table, so statements that consume a
+     * stray brace can no longer make the body run past its end.
+     * 
+     * @param closeIndex Token index of the matching }, or BracketTable.NO_MATCH
      */
-    private void parseFunctionBody(FunctionNode functionNode) {
-        int braceDepth = 1;
-        
-        while (braceDepth > 0 && currentTokenIndex < tokens.size()) {
+    private void parseFunctionBody(FunctionNode functionNode, int closeIndex) {
+        while (!isAtBlockEnd(closeIndex)) {
             Token token = getCurrentToken();
             
-            if (token.getType() == TokenType.LEFT_BRACE) {
-                braceDepth++;
-            } else if (token.getType() == TokenType.RIGHT_BRACE) {
-                braceDepth--;
-                if (braceDepth == 0) {
-                    advanceToken(); // Skip closing }
-                    break;
-                }
-            } else if (token.getType() == TokenType.JS_KEYWORD) {
+            if (token.getType() == TokenType.JS_KEYWORD) {
                 String keyword = token.getValue();
                 if (keyword.equals("let") || keyword.equals("var")) {
                     parseVariableDeclaration(keyword);
@@ -482,6 +789,25 @@ public class Parser {
                 advanceToken();
             }
         }
+        if (currentTokenIndex == closeIndex) {
+            advanceToken(); // Skip closing }
+        }
+    }
+    
+    /**
+     * Checks if the parser reached the end of a bracketed block.
+     * With a known closer the check is a single index comparison; for an
+     * unterminated block the end is the closing script tag or EOF.
+     * 
+     * @param closeIndex Token index of the block's closer, or BracketTable.NO_MATCH
+     * @return true if the block has no more tokens to parse
+     */
+    private boolean isAtBlockEnd(int closeIndex) {
+        if (closeIndex != BracketTable.NO_MATCH) {
+            return currentTokenIndex >= closeIndex;
+        }
+        TokenType type = getCurrentToken().getType();
+        return type == TokenType.EOF || type == TokenType.SCRIPT_CLOSE;
     }
     
     /**
@@ -493,9 +819,10 @@ public class Parser {
         
         Token identifierToken = getCurrentToken();
         if (identifierToken.getType() == TokenType.JS_IDENTIFIER) {
-            IdentifierNode identifier = new IdentifierNode(identifierToken.getValue(),
-                                                           identifierToken.getLineNumber(),
-                                                           identifierToken.getColumnNumber());
+            IdentifierNode identifier = spanOf(new IdentifierNode(identifierToken.getValue(),
+                                                                  identifierToken.getLineNumber(),
+                                                                  identifierToken.getColumnNumber()),
+                                               identifierToken);
             declaredVariables.add(identifier.getName());
             
             advanceToken(); // Skip identifier
@@ -507,9 +834,10 @@ public class Parser {
                 initialValue = parseExpression();
             }
             
-            VariableNode variableNode = new VariableNode(keyword, identifier, initialValue,
-                                                       keywordToken.getLineNumber(),
-                                                       keywordToken.getColumnNumber());
+            VariableNode variableNode = spanFrom(new VariableNode(keyword, identifier, initialValue,
+                                                                  keywordToken.getLineNumber(),
+                                                                  keywordToken.getColumnNumber()),
+                                                 keywordToken);
             
             if (currentScriptNode != null) {
                 currentScriptNode.addStatement(variableNode);
@@ -534,9 +862,10 @@ public class Parser {
         
         Token identifierToken = getCurrentToken();
         if (identifierToken.getType() == TokenType.JS_IDENTIFIER) {
-            IdentifierNode identifier = new IdentifierNode(identifierToken.getValue(),
-                                                         identifierToken.getLineNumber(),
-                                                         identifierToken.getColumnNumber());
+            IdentifierNode identifier = spanOf(new IdentifierNode(identifierToken.getValue(),
+                                                                  identifierToken.getLineNumber(),
+                                                                  identifierToken.getColumnNumber()),
+                                               identifierToken);
             declaredVariables.add(identifier.getName());
             
             advanceToken(); // Skip identifier
@@ -548,9 +877,10 @@ public class Parser {
                 value = parseExpression();
             }
             
-            ConstantNode constantNode = new ConstantNode(identifier, value,
-                                                        constToken.getLineNumber(),
-                                                        constToken.getColumnNumber());
+            ConstantNode constantNode = spanFrom(new ConstantNode(identifier, value,
+                                                                  constToken.getLineNumber(),
+                                                                  constToken.getColumnNumber()),
+                                                 constToken);
             
             if (currentScriptNode != null) {
                 currentScriptNode.addStatement(constantNode);
@@ -610,9 +940,10 @@ public class Parser {
     private void parseAssignment() {
         Token identifierToken = getCurrentToken();
         if (identifierToken.getType() == TokenType.JS_IDENTIFIER) {
-            IdentifierNode lhs = new IdentifierNode(identifierToken.getValue(),
-                                                   identifierToken.getLineNumber(),
-                                                   identifierToken.getColumnNumber());
+            IdentifierNode lhs = spanOf(new IdentifierNode(identifierToken.getValue(),
+                                                           identifierToken.getLineNumber(),
+                                                           identifierToken.getColumnNumber()),
+                                        identifierToken);
             advanceToken(); // Skip identifier
             
             Token operatorToken = getCurrentToken();
@@ -635,9 +966,10 @@ public class Parser {
             
             Node rhs = parseExpression();
             
-            AssignmentNode assignment = new AssignmentNode(lhs, operator, rhs,
-                                                          identifierToken.getLineNumber(),
-                                                          identifierToken.getColumnNumber());
+            AssignmentNode assignment = spanFrom(new AssignmentNode(lhs, operator, rhs,
+                                                                    identifierToken.getLineNumber(),
+                                                                    identifierToken.getColumnNumber()),
+                                                 identifierToken);
             
             if (currentScriptNode != null) {
                 currentScriptNode.addStatement(assignment);
@@ -692,9 +1024,9 @@ public class Parser {
                     (lookaheadToken.getValue().equals(";") || lookaheadToken.getValue().equals(",") ||
                      lookaheadToken.getValue().equals(")"))) {
                     // Simple identifier
-                    IdentifierNode id = new IdentifierNode(token.getValue(),
-                                                         token.getLineNumber(),
-                                                         token.getColumnNumber());
+                    IdentifierNode id = spanOf(new IdentifierNode(token.getValue(),
+                                                                  token.getLineNumber(),
+                                                                  token.getColumnNumber()), token);
                     advanceToken();
                     return id;
                 }
@@ -707,18 +1039,17 @@ public class Parser {
         }
         
         // Handle literals
-        if (token.getType() == TokenType.JS_LITERAL_STRING || 
-            token.getType() == TokenType.JS_LITERAL_NUMBER ||
-            token.getType() == TokenType.JS_LITERAL_BOOLEAN ||
-            token.getType() == TokenType.JS_LITERAL_NULL) {
-            IdentifierNode literal = new IdentifierNode(token.getValue(),
-                                                       token.getLineNumber(),
-                                                       token.getColumnNumber());
+        LiteralKind literalKind = literalKindOf(token.getType());
+        if (literalKind != null) {
+            LiteralNode literal = spanOf(new LiteralNode(token.getValue(), literalKind,
+                                                         token.getLineNumber(),
+                                                         token.getColumnNumber()), token);
             advanceToken();
             return literal;
         }
         
         // Default: create expression node (for binary operations, comparisons, etc.)
+        Token firstToken = token;
         ExpressionNode expr = new ExpressionNode(token.getLineNumber(), token.getColumnNumber());
         int maxIterations = 1000; // Prevent infinite loops
         int iterations = 0;
@@ -775,19 +1106,17 @@ public class Parser {
                         expr.addOperand(callNode);
                     }
                 } else {
-                    IdentifierNode id = new IdentifierNode(token.getValue(),
-                                                          token.getLineNumber(),
-                                                          token.getColumnNumber());
+                    IdentifierNode id = spanOf(new IdentifierNode(token.getValue(),
+                                                                  token.getLineNumber(),
+                                                                  token.getColumnNumber()), token);
                     expr.addOperand(id);
                     advanceToken();
                 }
-            } else if (token.getType() == TokenType.JS_LITERAL_STRING ||
-                      token.getType() == TokenType.JS_LITERAL_NUMBER ||
-                      token.getType() == TokenType.JS_LITERAL_BOOLEAN ||
-                      token.getType() == TokenType.JS_LITERAL_NULL) {
-                IdentifierNode literal = new IdentifierNode(token.getValue(),
-                                                          token.getLineNumber(),
-                                                          token.getColumnNumber());
+            } else if (literalKindOf(token.getType()) != null) {
+                LiteralNode literal = spanOf(new LiteralNode(token.getValue(),
+                                                             literalKindOf(token.getType()),
+                                                             token.getLineNumber(),
+                                                             token.getColumnNumber()), token);
                 expr.addOperand(literal);
                 advanceToken();
             } else {
@@ -807,7 +1136,7 @@ public class Parser {
             return null;
         }
         
-        return expr;
+        return spanFrom(expr, firstToken);
     }
     
     /**
@@ -819,7 +1148,8 @@ public class Parser {
         Node callee = null;
         
         // Build callee (could be document.getElementById or just document)
-        StringBuilder calleeName = new StringBuilder();
+        StringBuilder calleeName = scratch;
+        calleeName.setLength(0);
         boolean hasParentheses = false;
         
         while (currentTokenIndex < tokens.size()) {
@@ -842,10 +1172,12 @@ public class Parser {
             }
         }
         
+        // Copy the name out before recursing, which reuses the scratch buffer
+        String calleeText = calleeName.toString();
         if (calleeName.length() > 0) {
-            callee = new IdentifierNode(calleeName.toString(), 
-                                      firstToken.getLineNumber(),
-                                      firstToken.getColumnNumber());
+            callee = spanFrom(new IdentifierNode(calleeText, 
+                                                 firstToken.getLineNumber(),
+                                                 firstToken.getColumnNumber()), firstToken);
         }
         
         // Parse arguments if there's a function call
@@ -885,7 +1217,7 @@ public class Parser {
                 Node propertyAccess = parseMethodCall();
                 // Chain the calls: create a new CallNode that represents the property access
                 // For now, we'll create an IdentifierNode that represents the full chain
-                String fullChain = calleeName.toString();
+                String fullChain = calleeText;
                 if (propertyAccess instanceof CallNode) {
                     CallNode propCall = (CallNode) propertyAccess;
                     if (propCall.getCallee() instanceof IdentifierNode) {
@@ -894,11 +1226,50 @@ public class Parser {
                 } else if (propertyAccess instanceof IdentifierNode) {
                     fullChain += "." + ((IdentifierNode) propertyAccess).getName();
                 }
-                return new IdentifierNode(fullChain, firstToken.getLineNumber(), firstToken.getColumnNumber());
+                return spanFrom(new IdentifierNode(fullChain, firstToken.getLineNumber(), firstToken.getColumnNumber()),
+                                firstToken);
             }
         }
         
-        return callNode;
+        return spanFrom(callNode, firstToken);
+    }
+    
+    /**
+     * Gets the literal kind for a token type.
+     * 
+     * @return The literal kind, or null if the token is not a literal
+     */
+    private static LiteralKind literalKindOf(TokenType type) {
+        switch (type) {
+            case JS_LITERAL_STRING:
+                return LiteralKind.STRING;
+            case JS_LITERAL_NUMBER:
+                return LiteralKind.NUMBER;
+            case JS_LITERAL_BOOLEAN:
+                return LiteralKind.BOOLEAN;
+            case JS_LITERAL_NULL:
+                return LiteralKind.NULL;
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * Sets a node's source span to exactly one token.
+     */
+    private <T extends Node> T spanOf(T node, Token token) {
+        node.setSourceSpan(token.getStartOffset(), token.getEndOffset());
+        return node;
+    }
+    
+    /**
+     * Sets a node's source span from its first token to the last token consumed so far.
+     */
+    private <T extends Node> T spanFrom(T node, Token firstToken) {
+        int lastIndex = Math.min(currentTokenIndex, tokens.size()) - 1;
+        int endOffset = lastIndex >= 0 ? tokens.get(lastIndex).getEndOffset() : firstToken.getEndOffset();
+        node.setSourceSpan(firstToken.getStartOffset(), Math.max(endOffset, firstToken.getEndOffset()));
+        return node;
     }
     
     /**
@@ -908,7 +1279,7 @@ public class Parser {
         if (currentTokenIndex < tokens.size()) {
             return tokens.get(currentTokenIndex);
         }
-        return new Token(TokenType.EOF, "", 0, 0);
+        return END_OF_INPUT;
     }
     
     /**
@@ -920,13 +1291,31 @@ public class Parser {
         }
     }
     
+    /**
+     * Gets the number of tokens produced by the lexer, EOF included.
+     * 
+     * @return Token count
+     */
+    public int getTokenCount() {
+        return tokens.size();
+    }
+    
+    /**
+     * Gets the index of HTML element IDs built during parsing.
+     * 
+     * @return Element ID index
+     */
+    public ElementIdIndex getElementIdIndex() {
+        return elementIdIndex;
+    }
+    
     /**
      * Gets the list of HTML element IDs found during parsing.
      * 
      * @return List of element IDs
      */
     public List<String> getHtmlElementIds() {
-        return htmlElementIds;
+        return new ArrayList<>(elementIdIndex.getDeclarations());
     }
     
     /**
@@ -937,5 +1326,51 @@ public class Parser {
     public List<String> getDeclaredVariables() {
         return declaredVariables;
     }
+    
+    /**
+     * A script block deferred by the HTML pass in PARALLEL_SCRIPTS mode.
+     */
+    private static class ScriptBlock {
+        private final ScriptNode scriptNode;
+        private final int start;
+        private final int end;
+        
+        ScriptBlock(ScriptNode scriptNode, int start, int end) {
+            this.scriptNode = scriptNode;
+            this.start = start;
+            this.end = end;
+        }
+    }
+    
+    /**
+     * Fork/join task that parses a range of script blocks, splitting the
+     * range in halves so idle workers can steal the other half.
+     * Each block gets its own parser, so no parser state is shared between threads.
+     */
+    private class ScriptBlockTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final transient Parser[] blockParsers; // Tasks are never serialized
+        private final int from;
+        private final int to;
+        
+        ScriptBlockTask(Parser[] blockParsers, int from, int to) {
+            this.blockParsers = blockParsers;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                ScriptBlock block = scriptBlocks.get(from);
+                Parser blockParser = new Parser(Parser.this, block.scriptNode);
+                blockParser.parseScriptBlock(block.start, block.end);
+                blockParsers[from] = blockParser;
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ScriptBlockTask(blockParsers, from, middle),
+                      new ScriptBlockTask(blockParsers, middle, to));
+        }
+    }
 }
-
@@ -0,0 +1,19 @@
+package parser;
+
+/**
+ * Parser profiles, selecting how much of the document is turned into AST nodes.
+ * 
+ * @author eduardo
+ */
+public enum ParserProfile {
+    /**
+     * Build the complete AST, including JavaScript nodes (default).
+     */
+    FULL,
+    
+    /**
+     * Build only the HTML structure. Script blocks become empty ScriptNodes and
+     * their tokens are skipped by jumping to the closing script tag.
+     */
+    STRUCTURE_ONLY
+}
@@ -0,0 +1,32 @@
+package parser;
+
+/**
+ * Receives the HTML tags seen by the parser, in source order.
+ * Lets checks that only need the sequence of opening and closing tags run
+ * while the document is parsed, without walking the AST afterwards.
+ * 
+ * @author eduardo
+ */
+public interface TagEventListener {
+    /**
+     * Called for every opening tag, including &lt;script&gt;.
+     * 
+     * @param tagName Lowercase tag name
+     * @param selfClosing true if the tag ends with "/&gt;"
+     * @param lineNumber Line of the tag
+     */
+    void tagOpened(String tagName, boolean selfClosing, int lineNumber);
+    
+    /**
+     * Called for every closing tag, including &lt;/script&gt;.
+     * 
+     * @param tagName Lowercase tag name
+     * @param lineNumber Line of the tag
+     */
+    void tagClosed(String tagName, int lineNumber);
+    
+    /**
+     * Called once after the last tag, unless parsing was cancelled.
+     */
+    void endOfInput();
+}
@@ -0,0 +1,56 @@
+package parser;
+
+import ast.html.TagNode;
+import java.util.Arrays;
+import java.util.EmptyStackException;
+
+/**
+ * Unsynchronized array-backed stack of open HTML tags.
+ * Replaces java.util.Stack in the parser, which synchronizes every call
+ * even though each parser instance is confined to one thread.
+ * 
+ * @author eduardo
+ */
+final class TagStack {
+    private TagNode[] elements;
+    private int size;
+    
+    /**
+     * Creates an empty tag stack.
+     */
+    TagStack() {
+        this.elements = new TagNode[16];
+        this.size = 0;
+    }
+    
+    void push(TagNode tag) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, elements.length * 2);
+        }
+        elements[size++] = tag;
+    }
+    
+    TagNode pop() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        TagNode tag = elements[--size];
+        elements[size] = null;
+        return tag;
+    }
+    
+    TagNode peek() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        return elements[size - 1];
+    }
+    
+    boolean isEmpty() {
+        return size == 0;
+    }
+    
+    int size() {
+        return size;
+    }
+}
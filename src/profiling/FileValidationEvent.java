@@ -0,0 +1,37 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Validation of one HTML file, from reading it to writing its report.
+ * Fields are filled only when {@link #shouldCommit()} is true, so the event
+ * costs next to nothing when no recording is active.
+ * 
+ * @author eduardo
+ */
+@Name("validator.FileValidation")
+@Label("File Validation")
+@Category({"HTML Validator"})
+@Description("Validates one HTML file end to end")
+public class FileValidationEvent extends Event {
+    @Label("File Path")
+    public String filePath;
+    
+    @Label("Byte Size")
+    @DataAmount
+    public long byteSize;
+    
+    @Label("Token Count")
+    public int tokenCount;
+    
+    @Label("Node Count")
+    public int nodeCount;
+    
+    @Label("Error Count")
+    public int errorCount;
+}
@@ -0,0 +1,28 @@
+package profiling;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Decides whether the JFR events of this package are worth creating.
+ * Loading the first {@link jdk.jfr.Event} subclass starts JFR's
+ * instrumentation, which costs hundreds of milliseconds on JDK 17 even when
+ * nothing is recorded, so the validator creates its events only once the
+ * Flight Recorder has been initialized by a recording (at startup with
+ * {@code -XX:StartFlightRecording} or later with {@code jcmd JFR.start}).
+ * 
+ * @author eduardo
+ */
+public final class JfrEvents {
+    
+    private JfrEvents() {
+    }
+    
+    /**
+     * Checks if a JFR recording may be active, without loading JFR.
+     * 
+     * @return true if events should be created, false if they would be discarded
+     */
+    public static boolean isRecorderInitialized() {
+        return FlightRecorder.isInitialized();
+    }
+}
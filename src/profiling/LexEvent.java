@@ -0,0 +1,25 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Tokenization of one input by the lexer.
+ * 
+ * @author eduardo
+ */
+@Name("validator.Lex")
+@Label("Lex")
+@Category({"HTML Validator"})
+@Description("Tokenizes the input")
+public class LexEvent extends Event {
+    @Label("Input Length")
+    @Description("Characters tokenized")
+    public int inputLength;
+    
+    @Label("Token Count")
+    public int tokenCount;
+}
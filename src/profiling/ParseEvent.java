@@ -0,0 +1,24 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Construction of the AST of one document by the parser.
+ * 
+ * @author eduardo
+ */
+@Name("validator.Parse")
+@Label("Parse")
+@Category({"HTML Validator"})
+@Description("Builds the AST from the tokens")
+public class ParseEvent extends Event {
+    @Label("Token Count")
+    public int tokenCount;
+    
+    @Label("Node Count")
+    public int nodeCount;
+}
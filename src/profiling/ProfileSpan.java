@@ -0,0 +1,42 @@
+package profiling;
+
+/**
+ * Measurement of one stage in progress, recorded into its profile when closed.
+ * Must be closed on the thread that started it, since allocation is counted
+ * per thread. Meant for try-with-resources; the span itself is rarely
+ * referenced in the block, so callers suppress the "try" lint warning.
+ * 
+ * @author eduardo
+ */
+public final class ProfileSpan implements AutoCloseable {
+    /**
+     * Span that records nothing, used when profiling is off.
+     */
+    static final ProfileSpan NONE = new ProfileSpan(null, null, 0, 0);
+    
+    private final ValidationProfile profile;
+    private final String stageName;
+    private final long startNanos;
+    private final long startBytes;
+    
+    ProfileSpan(ValidationProfile profile, String stageName, long startNanos, long startBytes) {
+        this.profile = profile;
+        this.stageName = stageName;
+        this.startNanos = startNanos;
+        this.startBytes = startBytes;
+    }
+    
+    /**
+     * Ends the stage and records its time and allocation.
+     */
+    @Override
+    public void close() {
+        if (profile == null) {
+            return;
+        }
+        long nanos = System.nanoTime() - startNanos;
+        long endBytes = ValidationProfile.currentThreadAllocatedBytes();
+        long bytes = startBytes < 0 || endBytes < 0 ? -1 : endBytes - startBytes;
+        profile.record(stageName, nanos, bytes);
+    }
+}
@@ -0,0 +1,27 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Writing of the numbered error report of one document.
+ * 
+ * @author eduardo
+ */
+@Name("validator.Report")
+@Label("Report")
+@Category({"HTML Validator"})
+@Description("Writes the error report")
+public class ReportEvent extends Event {
+    @Label("File Path")
+    public String filePath;
+    
+    @Label("Line Count")
+    public int lineCount;
+    
+    @Label("Error Count")
+    public int errorCount;
+}
@@ -0,0 +1,193 @@
+package profiling;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wall time and allocated bytes of each stage of a validation run
+ * (read, lex, parse, each shared artifact, each validator, report).
+ * Allocation is measured with the per-thread counters of
+ * {@code com.sun.management.ThreadMXBean}; on JVMs without them only time
+ * is recorded. Safe to update from several validator threads at once.
+ * 
+ * @author eduardo
+ */
+public final class ValidationProfile {
+    private final Map<String, Stage> stages;
+    
+    /**
+     * Creates an empty profile.
+     */
+    public ValidationProfile() {
+        this.stages = new LinkedHashMap<>();
+    }
+    
+    /**
+     * Starts measuring a stage on the current thread.
+     * 
+     * @param profile The profile to record into, or null when profiling is off
+     * @param stageName Name of the stage (e.g. "parse", "validator:identifier")
+     * @return A span to close when the stage ends
+     */
+    public static ProfileSpan start(ValidationProfile profile, String stageName) {
+        if (profile == null) {
+            return ProfileSpan.NONE;
+        }
+        // Allocation first: the first call looks up the thread bean, which must not be timed
+        long startBytes = currentThreadAllocatedBytes();
+        return new ProfileSpan(profile, stageName, System.nanoTime(), startBytes);
+    }
+    
+    /**
+     * Adds time and allocation to a stage. Stages are listed in the order
+     * they are first recorded; recording a stage again accumulates.
+     * 
+     * @param stageName Name of the stage
+     * @param nanos Wall time in nanoseconds
+     * @param bytes Allocated bytes, or a negative value if unknown
+     */
+    public void record(String stageName, long nanos, long bytes) {
+        record(stageName, nanos, bytes, 1);
+    }
+    
+    /**
+     * Adds several measurements of a stage at once.
+     * 
+     * @param stageName Name of the stage
+     * @param nanos Total wall time in nanoseconds
+     * @param bytes Total allocated bytes, or a negative value if unknown
+     * @param count Number of measurements added
+     */
+    public synchronized void record(String stageName, long nanos, long bytes, int count) {
+        Stage stage = stages.get(stageName);
+        if (stage == null) {
+            stage = new Stage(stageName);
+            stages.put(stageName, stage);
+        }
+        stage.add(nanos, bytes, count);
+    }
+    
+    /**
+     * Adds every stage of another profile to this one, e.g. to total several files.
+     * 
+     * @param other The profile to add
+     */
+    public void addAll(ValidationProfile other) {
+        for (Stage stage : other.getStages()) {
+            record(stage.getName(), stage.getNanos(), stage.getBytes(), stage.getCount());
+        }
+    }
+    
+    /**
+     * Gets a snapshot of the recorded stages.
+     * 
+     * @return Stages in the order they were first recorded
+     */
+    public synchronized List<Stage> getStages() {
+        List<Stage> snapshot = new ArrayList<>(stages.size());
+        for (Stage stage : stages.values()) {
+            Stage copy = new Stage(stage.getName());
+            copy.add(stage.getNanos(), stage.getBytes(), stage.getCount());
+            snapshot.add(copy);
+        }
+        return snapshot;
+    }
+    
+    /**
+     * Formats the stages as a table.
+     * 
+     * @return Multi-line summary, one stage per line
+     */
+    public String formatSummary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("%-32s %12s %14s %10s%n", "Stage", "Time (ms)", "Allocated (KB)", "Calls"));
+        for (Stage stage : getStages()) {
+            String allocated = stage.getBytes() < 0 ? "n/a" : String.format("%.1f", stage.getBytes() / 1024.0);
+            summary.append(String.format("%-32s %12.3f %14s %10d%n", stage.getName(), 
+                                         stage.getNanos() / 1_000_000.0, allocated, stage.getCount()));
+        }
+        return summary.toString();
+    }
+    
+    /**
+     * Gets the bytes allocated so far by the current thread.
+     * 
+     * @return Allocated bytes, or -1 if the JVM does not count them
+     */
+    public static long currentThreadAllocatedBytes() {
+        com.sun.management.ThreadMXBean threadBean = ThreadBeanHolder.THREAD_BEAN;
+        if (threadBean == null) {
+            return -1;
+        }
+        return threadBean.getCurrentThreadAllocatedBytes();
+    }
+    
+    /**
+     * Holds the thread bean, looked up on the first measurement: getting it
+     * starts the platform management services, which unprofiled runs skip.
+     */
+    private static final class ThreadBeanHolder {
+        private static final com.sun.management.ThreadMXBean THREAD_BEAN = getThreadBean();
+        
+        private static com.sun.management.ThreadMXBean getThreadBean() {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+                if (threadBean.isThreadAllocatedMemorySupported()) {
+                    threadBean.setThreadAllocatedMemoryEnabled(true);
+                    return threadBean;
+                }
+            }
+            return null;
+        }
+    }
+    
+    /**
+     * Totals of one stage.
+     */
+    public static final class Stage {
+        private final String name;
+        private long nanos;
+        private long bytes;
+        private int count;
+        
+        private Stage(String name) {
+            this.name = name;
+        }
+        
+        private void add(long nanos, long bytes, int count) {
+            this.nanos += nanos;
+            // Once any measurement is unknown, the total is unknown
+            this.bytes = this.bytes < 0 || bytes < 0 ? -1 : this.bytes + bytes;
+            this.count += count;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        /**
+         * Gets the total wall time in nanoseconds.
+         */
+        public long getNanos() {
+            return nanos;
+        }
+        
+        /**
+         * Gets the total allocated bytes, or -1 if unknown.
+         */
+        public long getBytes() {
+            return bytes;
+        }
+        
+        /**
+         * Gets how many times the stage was recorded (e.g. visits of a validator).
+         */
+        public int getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Run of one validator over one document.
+ * The event spans the whole validation stage, which validators share in the
+ * fused walk; the validator's own time is in {@code visitTime}.
+ * 
+ * @author eduardo
+ */
+@Name("validator.ValidatorRun")
+@Label("Validator Run")
+@Category({"HTML Validator"})
+@Description("Runs one validation rule over the AST")
+public class ValidatorRunEvent extends Event {
+    @Label("File Path")
+    public String filePath;
+    
+    @Label("Rule")
+    public String ruleId;
+    
+    @Label("Node Count")
+    @Description("Nodes visited")
+    public int nodeCount;
+    
+    @Label("Error Count")
+    public int errorCount;
+    
+    @Label("Visit Time")
+    @Description("Time spent in the validator's own visit methods")
+    @Timespan(Timespan.NANOSECONDS)
+    public long visitTime;
+}
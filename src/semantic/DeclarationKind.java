@@ -0,0 +1,24 @@
+package semantic;
+
+/**
+ * Kinds of JavaScript declarations tracked by the semantic analysis.
+ * 
+ * @author eduardo
+ */
+public enum DeclarationKind {
+    VAR,
+    LET,
+    CONST,
+    FUNCTION,
+    PARAMETER;
+    
+    /**
+     * Gets the declaration kind for a variable keyword.
+     * 
+     * @param keyword "var" or "let"
+     * @return VAR or LET (LET for any other keyword)
+     */
+    public static DeclarationKind fromKeyword(String keyword) {
+        return "var".equals(keyword) ? VAR : LET;
+    }
+}
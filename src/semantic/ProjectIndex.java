@@ -0,0 +1,188 @@
+package semantic;
+
+import ast.html.ElementIdIndex;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Declarations of every file of a project: HTML element IDs, and the
+ * functions and constants declared at the top level of their scripts.
+ * Built once before the files are validated and then only read, so one
+ * instance is shared by all validation threads without locking.
+ * 
+ * @author eduardo
+ */
+public final class ProjectIndex {
+    /**
+     * Index of a project without files, used when a file is validated on its own.
+     */
+    public static final ProjectIndex EMPTY = new Builder().build();
+    
+    private final List<String> files;
+    private final Map<String, List<Location>> elementIds;
+    private final Map<String, List<Location>> functions;
+    private final Map<String, List<Location>> constants;
+    
+    private ProjectIndex(Builder builder) {
+        this.files = Collections.unmodifiableList(new ArrayList<>(builder.files));
+        this.elementIds = freeze(builder.elementIds);
+        this.functions = freeze(builder.functions);
+        this.constants = freeze(builder.constants);
+    }
+    
+    /**
+     * Gets the files of the project, in the order they were added.
+     * 
+     * @return Unmodifiable list of file paths
+     */
+    public List<String> getFiles() {
+        return files;
+    }
+    
+    /**
+     * Checks if any file of the project declares an element ID.
+     * 
+     * @param id The element ID (without quotes)
+     * @return true if the ID is declared in some file, false otherwise
+     */
+    public boolean containsElementId(String id) {
+        return elementIds.containsKey(id);
+    }
+    
+    /**
+     * Gets where an element ID is declared.
+     * 
+     * @param id The element ID (without quotes)
+     * @return Declarations in file order (empty if none)
+     */
+    public List<Location> getElementIdLocations(String id) {
+        return elementIds.getOrDefault(id, Collections.emptyList());
+    }
+    
+    /**
+     * Checks if any file of the project declares a top-level function.
+     * 
+     * @param name The function name
+     * @return true if the function is declared in some file, false otherwise
+     */
+    public boolean containsFunction(String name) {
+        return functions.containsKey(name);
+    }
+    
+    /**
+     * Gets where a top-level function is declared.
+     * 
+     * @param name The function name
+     * @return Declarations in file order (empty if none)
+     */
+    public List<Location> getFunctionLocations(String name) {
+        return functions.getOrDefault(name, Collections.emptyList());
+    }
+    
+    /**
+     * Checks if any file of the project declares a top-level constant.
+     * 
+     * @param name The constant name
+     * @return true if the constant is declared in some file, false otherwise
+     */
+    public boolean containsConstant(String name) {
+        return constants.containsKey(name);
+    }
+    
+    /**
+     * Gets where a top-level constant is declared.
+     * 
+     * @param name The constant name
+     * @return Declarations in file order (empty if none)
+     */
+    public List<Location> getConstantLocations(String name) {
+        return constants.getOrDefault(name, Collections.emptyList());
+    }
+    
+    private static Map<String, List<Location>> freeze(Map<String, List<Location>> map) {
+        Map<String, List<Location>> frozen = new HashMap<>(map.size() * 2);
+        for (Map.Entry<String, List<Location>> entry : map.entrySet()) {
+            frozen.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(frozen);
+    }
+    
+    /**
+     * Collects the declarations of each file, then builds the shared index.
+     * Not thread-safe: add the files from one thread, in a fixed order.
+     */
+    public static final class Builder {
+        private final List<String> files = new ArrayList<>();
+        private final Map<String, List<Location>> elementIds = new HashMap<>();
+        private final Map<String, List<Location>> functions = new HashMap<>();
+        private final Map<String, List<Location>> constants = new HashMap<>();
+        
+        /**
+         * Adds the declarations of one file.
+         * 
+         * @param filePath Path of the file
+         * @param elementIdIndex Element IDs found while parsing the file
+         * @param model Semantic model of the file
+         * @return This builder
+         */
+        public Builder addFile(String filePath, ElementIdIndex elementIdIndex, SemanticModel model) {
+            files.add(filePath);
+            for (String id : elementIdIndex.getIds()) {
+                add(elementIds, id, new Location(filePath, elementIdIndex.get(id).getLineNumber()));
+            }
+            for (Symbol symbol : model.getSymbols()) {
+                if (symbol.getScope().getKind() != Scope.Kind.SCRIPT) {
+                    continue;
+                }
+                if (symbol.getKind() == DeclarationKind.FUNCTION) {
+                    add(functions, symbol.getName(), new Location(filePath, symbol.getLineNumber()));
+                } else if (symbol.getKind() == DeclarationKind.CONST) {
+                    add(constants, symbol.getName(), new Location(filePath, symbol.getLineNumber()));
+                }
+            }
+            return this;
+        }
+        
+        /**
+         * Builds the index. The builder is not used by the index afterwards.
+         * 
+         * @return The read-only project index
+         */
+        public ProjectIndex build() {
+            return new ProjectIndex(this);
+        }
+        
+        private static void add(Map<String, List<Location>> map, String name, Location location) {
+            map.computeIfAbsent(name, key -> new ArrayList<>(1)).add(location);
+        }
+    }
+    
+    /**
+     * A declaration site in one file of the project.
+     */
+    public static final class Location {
+        private final String filePath;
+        private final int lineNumber;
+        
+        private Location(String filePath, int lineNumber) {
+            this.filePath = filePath;
+            this.lineNumber = lineNumber;
+        }
+        
+        public String getFilePath() {
+            return filePath;
+        }
+        
+        public int getLineNumber() {
+            return lineNumber;
+        }
+        
+        @Override
+        public String toString() {
+            return filePath + ":" + lineNumber;
+        }
+    }
+}
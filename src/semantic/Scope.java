@@ -0,0 +1,100 @@
+package semantic;
+
+import ast.Node;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A JavaScript scope: a script block or a function body.
+ * Each script block is its own top-level scope.
+ * 
+ * @author eduardo
+ */
+public class Scope {
+    /**
+     * Kinds of scope.
+     */
+    public enum Kind {
+        SCRIPT,
+        FUNCTION
+    }
+    
+    private final Kind kind;
+    private final Scope parent;
+    private final Node owner;
+    private final List<Symbol> symbols;
+    private final Map<String, Symbol> symbolsByName;
+    
+    Scope(Kind kind, Scope parent, Node owner) {
+        this.kind = kind;
+        this.parent = parent;
+        this.owner = owner;
+        this.symbols = new ArrayList<>();
+        this.symbolsByName = new HashMap<>();
+    }
+    
+    public Kind getKind() {
+        return kind;
+    }
+    
+    /**
+     * Gets the enclosing scope.
+     * 
+     * @return Parent scope, or null for a script scope
+     */
+    public Scope getParent() {
+        return parent;
+    }
+    
+    /**
+     * Gets the node that opens this scope.
+     * 
+     * @return The ScriptNode or FunctionNode
+     */
+    public Node getOwner() {
+        return owner;
+    }
+    
+    /**
+     * Gets the declarations of this scope in source order.
+     * 
+     * @return Unmodifiable list of symbols
+     */
+    public List<Symbol> getSymbols() {
+        return Collections.unmodifiableList(symbols);
+    }
+    
+    /**
+     * Finds the first declaration of a name in this scope only.
+     * 
+     * @param name The name
+     * @return The symbol, or null if not declared here
+     */
+    public Symbol getLocal(String name) {
+        return symbolsByName.get(name);
+    }
+    
+    /**
+     * Finds a name in this scope or the enclosing ones.
+     * 
+     * @param name The name
+     * @return The nearest declaration, or null if not declared
+     */
+    public Symbol lookup(String name) {
+        for (Scope scope = this; scope != null; scope = scope.parent) {
+            Symbol symbol = scope.symbolsByName.get(name);
+            if (symbol != null) {
+                return symbol;
+            }
+        }
+        return null;
+    }
+    
+    void declare(Symbol symbol) {
+        symbols.add(symbol);
+        symbolsByName.putIfAbsent(symbol.getName(), symbol);
+    }
+}
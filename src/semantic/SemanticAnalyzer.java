@@ -0,0 +1,255 @@
+package semantic;
+
+import ast.Node;
+import ast.NodeNumbering;
+import ast.html.DocumentNode;
+import ast.html.TagNode;
+import ast.js.AssignmentNode;
+import ast.js.CallNode;
+import ast.js.ConstantNode;
+import ast.js.ExpressionNode;
+import ast.js.FunctionNode;
+import ast.js.IdentifierNode;
+import ast.js.LiteralKind;
+import ast.js.ScriptNode;
+import ast.js.VariableNode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Semantic analysis pass shared by the identifier, constant and assignment rules.
+ * Walks the document once and builds the scope tree, the declarations with their
+ * kinds and first uses, and the literal type of every operand.
+ * 
+ * Uses are resolved when their scope closes, so a name used before its
+ * declaration in the same scope (hoisting) still resolves.
+ * 
+ * The parser lists function body statements in the script as well (ahead of
+ * the function itself). Those statements are analyzed in the function's scope;
+ * the const-after-var/let rule keeps following the script's statement list.
+ * 
+ * @author eduardo
+ */
+public class SemanticAnalyzer {
+    private Scope[] scopeOf;
+    private Symbol[] symbolOf;
+    private LiteralKind[] literalTypeOf;
+    private boolean[] declaredAfterVarOrLet;
+    private boolean[] inFunctionBody;
+    private List<Scope> scopes;
+    private List<Symbol> symbols;
+    private Scope currentScope;
+    private List<IdentifierNode> pendingUses; // Uses waiting for the current scope to close
+    
+    /**
+     * Analyzes a numbered document.
+     * 
+     * @param document The root document node (numbered here if the parser did not)
+     * @return The semantic model
+     */
+    public SemanticModel analyze(DocumentNode document) {
+        if (document.getNodeCount() == 0) {
+            NodeNumbering.number(document);
+        }
+        int nodeCount = document.getNodeCount();
+        scopeOf = new Scope[nodeCount];
+        symbolOf = new Symbol[nodeCount];
+        literalTypeOf = new LiteralKind[nodeCount];
+        declaredAfterVarOrLet = new boolean[nodeCount];
+        inFunctionBody = new boolean[nodeCount];
+        scopes = new ArrayList<>();
+        symbols = new ArrayList<>();
+        
+        for (TagNode tag : document.getChildren()) {
+            analyzeTag(tag);
+        }
+        
+        return new SemanticModel(scopeOf, symbolOf, literalTypeOf, declaredAfterVarOrLet, scopes, symbols);
+    }
+    
+    private void analyzeTag(TagNode tag) {
+        for (Node child : tag.getChildren()) {
+            if (child instanceof TagNode) {
+                analyzeTag((TagNode) child);
+            } else if (child instanceof ScriptNode) {
+                ScriptNode script = (ScriptNode) child;
+                scanStatementOrder(script);
+                List<IdentifierNode> outerUses = openScope(Scope.Kind.SCRIPT, script);
+                for (Node statement : script.getStatements()) {
+                    if (statement != null && !inFunctionBody[statement.getNodeId()]) {
+                        analyzeStatement(statement);
+                    }
+                }
+                closeScope(outerUses);
+            }
+        }
+    }
+    
+    /**
+     * Marks the statements that belong to function bodies and flags every
+     * constant that follows a var or let in the script's statement list.
+     */
+    private void scanStatementOrder(ScriptNode script) {
+        boolean varOrLetFound = false;
+        for (Node statement : script.getStatements()) {
+            if (statement instanceof ConstantNode) {
+                declaredAfterVarOrLet[statement.getNodeId()] = varOrLetFound;
+            } else if (statement instanceof VariableNode) {
+                varOrLetFound = true;
+            } else if (statement instanceof FunctionNode) {
+                for (Node bodyStatement : ((FunctionNode) statement).getBodyStatements()) {
+                    if (bodyStatement != null) {
+                        inFunctionBody[bodyStatement.getNodeId()] = true;
+                    }
+                }
+            }
+        }
+    }
+    
+    private void analyzeStatement(Node statement) {
+        if (statement == null || isAnalyzed(statement)) {
+            return;
+        }
+        record(statement);
+        
+        if (statement instanceof VariableNode) {
+            VariableNode variable = (VariableNode) statement;
+            IdentifierNode identifier = variable.getIdentifier();
+            declare(identifier.getName(), DeclarationKind.fromKeyword(variable.getKeyword()), 
+                    variable, identifier, identifier.getLineNumber());
+            analyzeExpression(variable.getInitialValue());
+        } else if (statement instanceof ConstantNode) {
+            ConstantNode constant = (ConstantNode) statement;
+            IdentifierNode identifier = constant.getIdentifier();
+            declare(identifier.getName(), DeclarationKind.CONST, constant, identifier, identifier.getLineNumber());
+            analyzeExpression(constant.getValue());
+        } else if (statement instanceof FunctionNode) {
+            FunctionNode function = (FunctionNode) statement;
+            declare(function.getFunctionName(), DeclarationKind.FUNCTION, function, null, function.getLineNumber());
+            
+            List<IdentifierNode> outerUses = openScope(Scope.Kind.FUNCTION, function);
+            for (IdentifierNode parameter : function.getParameters()) {
+                record(parameter);
+                declare(parameter.getName(), DeclarationKind.PARAMETER, parameter, null, parameter.getLineNumber());
+            }
+            for (Node bodyStatement : function.getBodyStatements()) {
+                analyzeStatement(bodyStatement);
+            }
+            closeScope(outerUses);
+        } else if (statement instanceof AssignmentNode) {
+            AssignmentNode assignment = (AssignmentNode) statement;
+            analyzeExpression(assignment.getLeftHandSide());
+            analyzeExpression(assignment.getRightHandSide());
+        } else {
+            analyzeOperand(statement);
+        }
+    }
+    
+    private void analyzeExpression(Node node) {
+        if (node == null || isAnalyzed(node)) {
+            return;
+        }
+        record(node);
+        analyzeOperand(node);
+    }
+    
+    /**
+     * Analyzes an operand that has already been recorded in the current scope.
+     */
+    private void analyzeOperand(Node node) {
+        if (node instanceof IdentifierNode) {
+            IdentifierNode identifier = (IdentifierNode) node;
+            LiteralKind type = LiteralKind.of(identifier);
+            literalTypeOf[identifier.getNodeId()] = type;
+            if (type == LiteralKind.UNKNOWN && baseNameLength(identifier.getName()) > 0) {
+                pendingUses.add(identifier);
+            }
+        } else if (node instanceof ExpressionNode) {
+            for (Node operand : ((ExpressionNode) node).getOperands()) {
+                analyzeExpression(operand);
+            }
+        } else if (node instanceof CallNode) {
+            CallNode call = (CallNode) node;
+            analyzeExpression(call.getCallee());
+            for (Node argument : call.getArguments()) {
+                analyzeExpression(argument);
+            }
+        } else if (node instanceof AssignmentNode) {
+            // Chained assignment (a = b = value)
+            AssignmentNode assignment = (AssignmentNode) node;
+            analyzeExpression(assignment.getLeftHandSide());
+            analyzeExpression(assignment.getRightHandSide());
+        }
+    }
+    
+    /**
+     * Checks if a node was already reached. A function body may list the
+     * same statement more than once.
+     */
+    private boolean isAnalyzed(Node node) {
+        return scopeOf[node.getNodeId()] != null;
+    }
+    
+    private void record(Node node) {
+        scopeOf[node.getNodeId()] = currentScope;
+    }
+    
+    private void declare(String name, DeclarationKind kind, Node declaration, IdentifierNode identifier, int lineNumber) {
+        Symbol symbol = new Symbol(name, kind, declaration, lineNumber, currentScope);
+        currentScope.declare(symbol);
+        symbols.add(symbol);
+        symbolOf[declaration.getNodeId()] = symbol;
+        if (identifier != null) {
+            record(identifier);
+            symbolOf[identifier.getNodeId()] = symbol;
+        }
+    }
+    
+    /**
+     * Opens a nested scope.
+     * 
+     * @return The enclosing scope's pending uses, to restore on close
+     */
+    private List<IdentifierNode> openScope(Scope.Kind kind, Node owner) {
+        currentScope = new Scope(kind, currentScope, owner);
+        scopes.add(currentScope);
+        List<IdentifierNode> outerUses = pendingUses;
+        pendingUses = new ArrayList<>();
+        return outerUses;
+    }
+    
+    /**
+     * Closes the current scope, resolving its pending uses against its declarations.
+     * Unresolved uses move to the enclosing scope.
+     */
+    private void closeScope(List<IdentifierNode> outerUses) {
+        for (IdentifierNode use : pendingUses) {
+            String name = use.getName();
+            Symbol symbol = currentScope.getLocal(name.substring(0, baseNameLength(name)));
+            if (symbol != null) {
+                symbolOf[use.getNodeId()] = symbol;
+                symbol.recordUse(use);
+            } else if (outerUses != null) {
+                outerUses.add(use);
+            }
+        }
+        pendingUses = outerUses;
+        currentScope = currentScope.getParent();
+    }
+    
+    /**
+     * Gets the length of the leading name of an operand, e.g. 5 for "total.value".
+     * 
+     * @return Length of the name, or 0 if the operand does not start with a name
+     */
+    private static int baseNameLength(String text) {
+        if (text.isEmpty() || !Character.isJavaIdentifierStart(text.charAt(0))) {
+            return 0;
+        }
+        int i = 1;
+        while (i < text.length() && Character.isJavaIdentifierPart(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+}
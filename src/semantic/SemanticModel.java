@@ -0,0 +1,96 @@
+package semantic;
+
+import ast.Node;
+import ast.js.ConstantNode;
+import ast.js.LiteralKind;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Results of the semantic analysis of one document.
+ * Per-node results are kept in arrays indexed by node ID, so lookups are
+ * plain array reads.
+ * 
+ * @author eduardo
+ */
+public class SemanticModel {
+    private final Scope[] scopes;
+    private final Symbol[] symbols;
+    private final LiteralKind[] literalTypes;
+    private final boolean[] declaredAfterVarOrLet;
+    private final List<Scope> allScopes;
+    private final List<Symbol> allSymbols;
+    
+    SemanticModel(Scope[] scopes, Symbol[] symbols, LiteralKind[] literalTypes,
+                  boolean[] declaredAfterVarOrLet, List<Scope> allScopes, List<Symbol> allSymbols) {
+        this.scopes = scopes;
+        this.symbols = symbols;
+        this.literalTypes = literalTypes;
+        this.declaredAfterVarOrLet = declaredAfterVarOrLet;
+        this.allScopes = Collections.unmodifiableList(allScopes);
+        this.allSymbols = Collections.unmodifiableList(allSymbols);
+    }
+    
+    /**
+     * Gets the scope a JavaScript statement or operand belongs to.
+     * 
+     * @param node A numbered node
+     * @return The enclosing scope, or null for HTML nodes
+     */
+    public Scope getScope(Node node) {
+        int id = node.getNodeId();
+        return id >= 0 && id < scopes.length ? scopes[id] : null;
+    }
+    
+    /**
+     * Gets the symbol of a declaration or of a resolved use.
+     * 
+     * @param node A declaring node, its identifier, or an identifier that refers to a declaration
+     * @return The symbol, or null if the node neither declares nor resolves to one
+     */
+    public Symbol getSymbol(Node node) {
+        int id = node.getNodeId();
+        return id >= 0 && id < symbols.length ? symbols[id] : null;
+    }
+    
+    /**
+     * Gets the literal type of an operand.
+     * 
+     * @param node A numbered node
+     * @return The literal type, or UNKNOWN for anything that is not a literal
+     */
+    public LiteralKind getLiteralType(Node node) {
+        int id = node.getNodeId();
+        LiteralKind type = id >= 0 && id < literalTypes.length ? literalTypes[id] : null;
+        return type != null ? type : LiteralKind.UNKNOWN;
+    }
+    
+    /**
+     * Checks if a constant is declared after a var or let in the same script.
+     * 
+     * @param constant The constant declaration
+     * @return true if a var or let precedes it in its script's statement list
+     */
+    public boolean isDeclaredAfterVarOrLet(ConstantNode constant) {
+        int id = constant.getNodeId();
+        return id >= 0 && id < declaredAfterVarOrLet.length && declaredAfterVarOrLet[id];
+    }
+    
+    /**
+     * Gets every scope in the order it was opened.
+     * 
+     * @return Unmodifiable list of scopes
+     */
+    public List<Scope> getScopes() {
+        return allScopes;
+    }
+    
+    /**
+     * Gets every declaration in source order.
+     * 
+     * @return Unmodifiable list of symbols
+     */
+    public List<Symbol> getSymbols() {
+        return allSymbols;
+    }
+}
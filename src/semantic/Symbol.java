@@ -0,0 +1,72 @@
+package semantic;
+
+import ast.Node;
+
+/**
+ * A declared name: one entry per declaration in the source.
+ * 
+ * @author eduardo
+ */
+public class Symbol {
+    private final String name;
+    private final DeclarationKind kind;
+    private final Node declaration;
+    private final int lineNumber;
+    private final Scope scope;
+    private Node firstUse;
+    
+    /**
+     * Creates a new symbol.
+     * 
+     * @param name Declared name
+     * @param kind Kind of declaration
+     * @param declaration Declaring node (VariableNode, ConstantNode, FunctionNode or parameter IdentifierNode)
+     * @param lineNumber Line of the declared name
+     * @param scope Scope the name is declared in
+     */
+    Symbol(String name, DeclarationKind kind, Node declaration, int lineNumber, Scope scope) {
+        this.name = name;
+        this.kind = kind;
+        this.declaration = declaration;
+        this.lineNumber = lineNumber;
+        this.scope = scope;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public DeclarationKind getKind() {
+        return kind;
+    }
+    
+    public Node getDeclaration() {
+        return declaration;
+    }
+    
+    public int getLineNumber() {
+        return lineNumber;
+    }
+    
+    public Scope getScope() {
+        return scope;
+    }
+    
+    /**
+     * Gets the first node, in source order, that refers to this symbol.
+     * 
+     * @return First use, or null if the symbol is never used
+     */
+    public Node getFirstUse() {
+        return firstUse;
+    }
+    
+    /**
+     * Records a use, keeping the earliest one by node ID.
+     */
+    void recordUse(Node use) {
+        if (firstUse == null || use.getNodeId() < firstUse.getNodeId()) {
+            firstUse = use;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package utils;
+
+/**
+ * Flag that tells running stages (lexer, parser, validators) to stop early.
+ * Set once by whoever decides the work is no longer needed, such as an
+ * error collector whose error limit was reached, or by the clock when the
+ * token's time budget runs out; stages poll it between units of work and
+ * return what they have so far.
+ * 
+ * A token may have a parent (e.g. one token per validator under the token
+ * of the file): it is cancelled whenever its parent is.
+ * 
+ * @author eduardo
+ */
+public final class CancellationToken {
+    private final CancellationToken parent;
+    private volatile boolean cancelled;
+    private volatile boolean timedOut;
+    private volatile boolean hasDeadline;
+    private volatile long deadline; // In System.nanoTime() terms
+    
+    /**
+     * Creates a token that is not cancelled.
+     */
+    public CancellationToken() {
+        this(null);
+    }
+    
+    /**
+     * Creates a token that is also cancelled when its parent is.
+     * 
+     * @param parent The parent token, or null for none
+     */
+    public CancellationToken(CancellationToken parent) {
+        this.parent = parent;
+        this.cancelled = false;
+    }
+    
+    /**
+     * Requests cancellation. Further calls have no effect.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+    
+    /**
+     * Cancels the token because its time budget ran out.
+     */
+    public void expire() {
+        timedOut = true;
+        cancelled = true;
+    }
+    
+    /**
+     * Sets the time after which the token is cancelled as timed out.
+     * Can be moved while the token is in use.
+     * 
+     * @param deadlineNanos Deadline, as a {@link System#nanoTime()} value
+     */
+    public void setDeadline(long deadlineNanos) {
+        this.deadline = deadlineNanos;
+        this.hasDeadline = true;
+    }
+    
+    /**
+     * Checks if cancellation was requested, here or in a parent, or the
+     * deadline has passed.
+     * 
+     * @return true if stages should stop, false otherwise
+     */
+    public boolean isCancelled() {
+        if (cancelled) {
+            return true;
+        }
+        if (hasDeadline && System.nanoTime() - deadline >= 0) {
+            expire();
+            return true;
+        }
+        return parent != null && parent.isCancelled();
+    }
+    
+    /**
+     * Checks if this token (not a parent) was cancelled by its time budget.
+     * 
+     * @return true if the token timed out, false otherwise
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+    
+    /**
+     * Checks if a token, which may be null, was cancelled.
+     * 
+     * @param token The token, or null for work that cannot be cancelled
+     * @return true if the token is not null and was cancelled
+     */
+    public static boolean isCancelled(CancellationToken token) {
+        return token != null && token.isCancelled();
+    }
+}
@@ -0,0 +1,221 @@
+package utils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+
+/**
+ * Writer for output files (reports) that encodes text as UTF-8 into a large
+ * direct buffer and writes it through a {@link FileChannel}.
+ * Characters are staged in a char array and encoded in bulk into a byte
+ * array (the encoder's fast path needs array-backed buffers on both sides),
+ * which is copied into the direct buffer; the file is written only when the
+ * direct buffer is full, so a multi-megabyte report costs a few dozen write
+ * calls instead of one per 8 KB, and the channel writes straight from the
+ * direct buffer without a temporary copy of its own.
+ * The buffers and the encoder are pooled per thread and reused by the next
+ * writer opened on that thread. Not thread-safe.
+ * 
+ * @author eduardo
+ */
+public final class ChannelWriter extends Writer {
+    private static final int BYTE_BUFFER_SIZE = 256 * 1024;
+    private static final int CHAR_BUFFER_SIZE = 32 * 1024;
+    private static final int ENCODED_BUFFER_SIZE = 64 * 1024;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    
+    // Buffers released by closed writers; a thread may have several writers open at once
+    private static final ThreadLocal<ArrayDeque<Buffers>> POOL = ThreadLocal.withInitial(ArrayDeque::new);
+    
+    private final FileChannel channel;
+    private final Buffers buffers;
+    private final char[] chars;
+    private final CharBuffer charView;
+    private final ByteBuffer encoded;
+    private final ByteBuffer bytes;
+    private final CharsetEncoder encoder;
+    private boolean closed;
+    
+    private ChannelWriter(FileChannel channel, Buffers buffers) {
+        this.channel = channel;
+        this.buffers = buffers;
+        this.chars = buffers.chars;
+        this.charView = buffers.charView;
+        this.encoded = buffers.encoded;
+        this.bytes = buffers.bytes;
+        this.encoder = buffers.encoder;
+    }
+    
+    /**
+     * Opens a file for writing, creating it or replacing its contents.
+     * 
+     * @param filePath Path to the file
+     * @return A writer for the file; close it to write the last bytes
+     * @throws IOException If the file cannot be opened
+     */
+    public static ChannelWriter open(String filePath) throws IOException {
+        FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                                               StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        Buffers buffers = POOL.get().pollFirst();
+        if (buffers == null) {
+            buffers = new Buffers();
+        }
+        buffers.reset();
+        return new ChannelWriter(channel, buffers);
+    }
+    
+    @Override
+    public void write(int c) throws IOException {
+        if (!charView.hasRemaining()) {
+            encode(false);
+        }
+        charView.put((char) c);
+    }
+    
+    @Override
+    public void write(char[] source, int offset, int length) throws IOException {
+        int end = offset + length;
+        while (offset < end) {
+            if (!charView.hasRemaining()) {
+                encode(false);
+            }
+            int count = Math.min(end - offset, charView.remaining());
+            int position = charView.position();
+            System.arraycopy(source, offset, chars, position, count);
+            charView.position(position + count);
+            offset += count;
+        }
+    }
+    
+    @Override
+    public void write(String source, int offset, int length) throws IOException {
+        int end = offset + length;
+        while (offset < end) {
+            if (!charView.hasRemaining()) {
+                encode(false);
+            }
+            int count = Math.min(end - offset, charView.remaining());
+            int position = charView.position();
+            source.getChars(offset, offset + count, chars, position);
+            charView.position(position + count);
+            offset += count;
+        }
+    }
+    
+    /**
+     * Writes the platform line separator.
+     * 
+     * @throws IOException If writing fails
+     */
+    public void newLine() throws IOException {
+        write(LINE_SEPARATOR, 0, LINE_SEPARATOR.length());
+    }
+    
+    /**
+     * Encodes the staged characters and writes every encoded byte to the file.
+     */
+    @Override
+    public void flush() throws IOException {
+        encode(false);
+        drain();
+    }
+    
+    /**
+     * Writes what is left and closes the file. The buffers go back to the pool.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            encode(true);
+            while (encoder.flush(encoded).isOverflow()) {
+                transfer();
+            }
+            transfer();
+            drain();
+        } finally {
+            try {
+                channel.close();
+            } finally {
+                POOL.get().addFirst(buffers);
+            }
+        }
+    }
+    
+    /**
+     * Encodes the staged characters and moves the bytes to the direct buffer.
+     * A high surrogate at the end of the staged characters stays staged
+     * until its pair arrives.
+     */
+    private void encode(boolean endOfInput) throws IOException {
+        charView.flip();
+        while (true) {
+            CoderResult result = encoder.encode(charView, encoded, endOfInput);
+            if (result.isOverflow()) {
+                transfer();
+            } else if (result.isUnderflow()) {
+                break;
+            } else {
+                result.throwException();
+            }
+        }
+        transfer();
+        charView.compact();
+    }
+    
+    /**
+     * Copies the encoded bytes into the direct buffer, writing the direct
+     * buffer to the file first if they do not fit.
+     */
+    private void transfer() throws IOException {
+        encoded.flip();
+        if (bytes.remaining() < encoded.remaining()) {
+            drain();
+        }
+        bytes.put(encoded);
+        encoded.clear();
+    }
+    
+    /**
+     * Writes the encoded bytes to the file and empties the byte buffer.
+     */
+    private void drain() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+    
+    /**
+     * Staging and output buffers with their encoder, reused across writers.
+     */
+    private static final class Buffers {
+        private final char[] chars = new char[CHAR_BUFFER_SIZE];
+        private final CharBuffer charView = CharBuffer.wrap(chars);
+        private final ByteBuffer encoded = ByteBuffer.allocate(ENCODED_BUFFER_SIZE);
+        private final ByteBuffer bytes = ByteBuffer.allocateDirect(BYTE_BUFFER_SIZE);
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        
+        private void reset() {
+            charView.clear();
+            encoded.clear();
+            bytes.clear();
+            encoder.reset();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package utils;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Utility class for file operations.
@@ -13,6 +14,7 @@ public class FileUtils {
     
     /**
      * Reads the entire contents of a file as a string.
+     * The file is decoded as UTF-8, the encoding reports are written in.
      * 
      * @param filePath Path to the file
      * @return File contents as a string
@@ -20,7 +22,7 @@ public class FileUtils {
      */
     public static String readFile(String filePath) throws IOException {
         StringBuilder content = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath, StandardCharsets.UTF_8))) {
             String line;
             while ((line = reader.readLine()) != null) {
                 content.append(line).append("\n");
@@ -36,10 +38,21 @@ public class FileUtils {
      * @return Output file path with .txt extension
      */
     public static String getOutputFilePath(String inputFilePath) {
+        return getOutputFilePath(inputFilePath, ".txt");
+    }
+    
+    /**
+     * Gets the path of a report by replacing the .html extension.
+     * 
+     * @param inputFilePath Input file path
+     * @param extension Report extension, including the dot (e.g. ".sarif")
+     * @return Output file path with the given extension
+     */
+    public static String getOutputFilePath(String inputFilePath, String extension) {
         if (inputFilePath.endsWith(".html")) {
-            return inputFilePath.substring(0, inputFilePath.length() - 5) + ".txt";
+            return inputFilePath.substring(0, inputFilePath.length() - 5) + extension;
         }
-        return inputFilePath + ".txt";
+        return inputFilePath + extension;
     }
 }
 
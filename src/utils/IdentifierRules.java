@@ -0,0 +1,137 @@
+package utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Checks names against the identifier rules (Requirement #2), shared by the
+ * identifier, constant and function rules.
+ * ASCII character classes are constant bitmasks, and all-ASCII valid names
+ * take a fast path that allocates nothing; other characters are classified
+ * by {@link Character} when they occur, so nothing is computed up front. Verdicts are
+ * cached per name, so one instance per document checks each distinct name once
+ * however often it occurs. Safe to use from several validator threads.
+ * 
+ * @author eduardo
+ */
+public final class IdentifierRules {
+    private static final String SPECIAL_CHARACTERS = "-+*/";
+    
+    // ASCII character classes, one bit per char value (low: 0-63, high: 64-127).
+    // Start: letters and '_'. Part: letters, digits, '_' and the control
+    // characters Character.isUnicodeIdentifierPart accepts as ignorable
+    // (0x00-0x08, 0x0E-0x1B, 0x7F)
+    private static final long ASCII_START_LOW = 0x0000000000000000L;
+    private static final long ASCII_START_HIGH = 0x07FFFFFE87FFFFFEL;
+    private static final long ASCII_PART_LOW = 0x03FF00000FFFC1FFL;
+    private static final long ASCII_PART_HIGH = 0x87FFFFFE87FFFFFEL;
+    
+    private final Map<String, IdentifierVerdict> verdicts;
+    
+    /**
+     * Creates an identifier rule checker with an empty verdict cache.
+     */
+    public IdentifierRules() {
+        this.verdicts = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * Checks a name, reusing the verdict of an earlier check of the same name.
+     * 
+     * @param name The name to check
+     * @return The verdict for the name
+     */
+    public IdentifierVerdict check(String name) {
+        if (name == null || name.isEmpty()) {
+            return IdentifierVerdict.EMPTY;
+        }
+        IdentifierVerdict verdict = verdicts.get(name);
+        if (verdict == null) {
+            verdict = evaluate(name);
+            IdentifierVerdict previous = verdicts.putIfAbsent(name, verdict);
+            if (previous != null) {
+                verdict = previous;
+            }
+        }
+        return verdict;
+    }
+    
+    /**
+     * Checks a name without caching the verdict.
+     * 
+     * @param name The name to check
+     * @return The verdict for the name
+     */
+    public static IdentifierVerdict evaluate(String name) {
+        if (name == null || name.isEmpty()) {
+            return IdentifierVerdict.EMPTY;
+        }
+        if (isPlainAsciiIdentifier(name)) {
+            return ReservedWords.isReserved(name) ? IdentifierVerdict.VALID_RESERVED : IdentifierVerdict.VALID;
+        }
+        
+        // Single pass collecting every broken rule
+        int invalidCharacter = IdentifierVerdict.NONE;
+        boolean containsSpace = false;
+        int specialMask = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (i > 0 && invalidCharacter == IdentifierVerdict.NONE && !isIdentifierPart(c)) {
+                invalidCharacter = c;
+            }
+            if (c == ' ') {
+                containsSpace = true;
+            } else {
+                int special = SPECIAL_CHARACTERS.indexOf(c);
+                if (special >= 0) {
+                    specialMask |= 1 << special;
+                }
+            }
+        }
+        int specialCharacter = specialMask == 0
+                ? IdentifierVerdict.NONE
+                : SPECIAL_CHARACTERS.charAt(Integer.numberOfTrailingZeros(specialMask));
+        
+        return new IdentifierVerdict(false, isIdentifierStart(name.charAt(0)), invalidCharacter,
+                                     containsSpace, specialCharacter, ReservedWords.isReserved(name));
+    }
+    
+    /**
+     * Checks if a character may start an identifier.
+     */
+    public static boolean isIdentifierStart(char c) {
+        if (c < 128) {
+            return ((c < 64 ? ASCII_START_LOW : ASCII_START_HIGH) & (1L << c)) != 0;
+        }
+        return Character.isLetter(c) || Character.isUnicodeIdentifierStart(c);
+    }
+    
+    /**
+     * Checks if a character may appear after the first one in an identifier.
+     */
+    public static boolean isIdentifierPart(char c) {
+        if (c < 128) {
+            return ((c < 64 ? ASCII_PART_LOW : ASCII_PART_HIGH) & (1L << c)) != 0;
+        }
+        return Character.isLetterOrDigit(c) || Character.isUnicodeIdentifierPart(c);
+    }
+    
+    /**
+     * Checks if a name is all ASCII and follows every character rule.
+     * Spaces and the special characters are never identifier parts, so they
+     * need no separate check here.
+     */
+    private static boolean isPlainAsciiIdentifier(String name) {
+        char first = name.charAt(0);
+        if (first >= 128 || ((first < 64 ? ASCII_START_LOW : ASCII_START_HIGH) & (1L << first)) == 0) {
+            return false;
+        }
+        for (int i = 1; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c >= 128 || ((c < 64 ? ASCII_PART_LOW : ASCII_PART_HIGH) & (1L << c)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
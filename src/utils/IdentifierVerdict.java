@@ -0,0 +1,92 @@
+package utils;
+
+/**
+ * Result of checking a name against the identifier rules (Requirement #2).
+ * Records every rule the name breaks, so each validator can report the
+ * messages it needs from a single check.
+ * 
+ * @author eduardo
+ */
+public final class IdentifierVerdict {
+    /**
+     * Marks a character that is not present.
+     */
+    public static final int NONE = -1;
+    
+    static final IdentifierVerdict EMPTY = new IdentifierVerdict(true, false, NONE, false, NONE, false);
+    static final IdentifierVerdict VALID = new IdentifierVerdict(false, true, NONE, false, NONE, false);
+    static final IdentifierVerdict VALID_RESERVED = new IdentifierVerdict(false, true, NONE, false, NONE, true);
+    
+    private final boolean empty;
+    private final boolean validStart;
+    private final int invalidCharacter;
+    private final boolean containsSpace;
+    private final int specialCharacter;
+    private final boolean reserved;
+    
+    IdentifierVerdict(boolean empty, boolean validStart, int invalidCharacter,
+                      boolean containsSpace, int specialCharacter, boolean reserved) {
+        this.empty = empty;
+        this.validStart = validStart;
+        this.invalidCharacter = invalidCharacter;
+        this.containsSpace = containsSpace;
+        this.specialCharacter = specialCharacter;
+        this.reserved = reserved;
+    }
+    
+    /**
+     * Checks if the name is null or empty. No other rule is checked in that case.
+     */
+    public boolean isEmpty() {
+        return empty;
+    }
+    
+    /**
+     * Checks if the first character is a letter, underscore or Unicode identifier start.
+     */
+    public boolean hasValidStart() {
+        return validStart;
+    }
+    
+    /**
+     * Gets the first character after the first one that is not an identifier part.
+     * 
+     * @return The character, or {@link #NONE}
+     */
+    public int getInvalidCharacter() {
+        return invalidCharacter;
+    }
+    
+    /**
+     * Checks if the name contains a space.
+     */
+    public boolean containsSpace() {
+        return containsSpace;
+    }
+    
+    /**
+     * Gets the special character found in the name, checked in the order - + * /.
+     * 
+     * @return The character, or {@link #NONE}
+     */
+    public int getSpecialCharacter() {
+        return specialCharacter;
+    }
+    
+    /**
+     * Checks if the name is a JavaScript reserved word.
+     */
+    public boolean isReserved() {
+        return reserved;
+    }
+    
+    /**
+     * Checks if the name follows the character rules. Reserved words are not
+     * considered here; see {@link #isReserved()}.
+     * 
+     * @return true if every character rule holds, false otherwise
+     */
+    public boolean followsIdentifierRules() {
+        return !empty && validStart && invalidCharacter == NONE && !containsSpace && specialCharacter == NONE;
+    }
+}
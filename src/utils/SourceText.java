@@ -0,0 +1,111 @@
+package utils;
+
+import java.io.IOException;
+
+/**
+ * Contents of a source file held in memory, with the offset where each line
+ * starts. Read once and shared by every stage that needs the text (lexer,
+ * parser, report), so a line can be located and copied out without reading
+ * the file again or keeping a second copy of it as a list of lines.
+ * 
+ * Lines end with '\n', as {@link FileUtils#readFile(String)} normalizes them;
+ * the terminator is not part of the line.
+ * 
+ * @author eduardo
+ */
+public final class SourceText {
+    private final String text;
+    private final int[] lineStarts; // lineStarts[i] is the offset of line i + 1
+    private final int lineCount;
+    
+    /**
+     * Creates a source text and indexes its lines.
+     * 
+     * @param text The contents, with lines ending in '\n'
+     */
+    public SourceText(String text) {
+        this.text = text;
+        
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                count++;
+            }
+        }
+        // A last line without a terminator still counts
+        boolean unterminated = !text.isEmpty() && text.charAt(text.length() - 1) != '\n';
+        if (unterminated) {
+            count++;
+        }
+        
+        this.lineCount = count;
+        this.lineStarts = new int[count + 1];
+        int line = 1;
+        for (int i = 0; i < text.length() && line < count; i++) {
+            if (text.charAt(i) == '\n') {
+                lineStarts[line++] = i + 1;
+            }
+        }
+        // Where a line after the last one would start, past its terminator
+        lineStarts[count] = unterminated ? text.length() + 1 : text.length();
+    }
+    
+    /**
+     * Reads a file into memory.
+     * 
+     * @param filePath Path to the file
+     * @return The file's contents with its line index
+     * @throws IOException If file reading fails
+     */
+    public static SourceText read(String filePath) throws IOException {
+        return new SourceText(FileUtils.readFile(filePath));
+    }
+    
+    /**
+     * Gets the whole contents.
+     * 
+     * @return The text, lines ending in '\n'
+     */
+    public String getText() {
+        return text;
+    }
+    
+    /**
+     * Gets the number of lines.
+     * 
+     * @return Number of lines (0 for empty contents)
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+    
+    /**
+     * Gets the offset where a line starts.
+     * 
+     * @param lineNumber Line number, from 1 to {@link #getLineCount()}
+     * @return Offset of the line's first character in {@link #getText()}
+     */
+    public int getLineStart(int lineNumber) {
+        return lineStarts[lineNumber - 1];
+    }
+    
+    /**
+     * Gets the offset where a line ends, before its terminator.
+     * 
+     * @param lineNumber Line number, from 1 to {@link #getLineCount()}
+     * @return Offset just past the line's last character in {@link #getText()}
+     */
+    public int getLineEnd(int lineNumber) {
+        return lineStarts[lineNumber] - 1;
+    }
+    
+    /**
+     * Gets the text of a line, without its terminator.
+     * 
+     * @param lineNumber Line number, from 1 to {@link #getLineCount()}
+     * @return The line
+     */
+    public String getLine(int lineNumber) {
+        return text.substring(getLineStart(lineNumber), getLineEnd(lineNumber));
+    }
+}
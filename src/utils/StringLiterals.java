@@ -0,0 +1,88 @@
+package utils;
+
+/**
+ * Helpers for quoted string literals (attribute values, string arguments).
+ * Works on offsets instead of regular expressions, so stripping quotes
+ * costs at most one substring and nothing when there are no quotes.
+ * 
+ * @author eduardo
+ */
+public final class StringLiterals {
+    
+    private StringLiterals() {
+    }
+    
+    /**
+     * Removes one leading and one trailing quote (" or '), each if present.
+     * Same result as {@code text.replaceAll("^[\"']|[\"']$", "")}: the two
+     * quotes need not match, and a trailing quote is also removed when it
+     * is followed only by a final line terminator.
+     * 
+     * @param text The text to unquote
+     * @return The text without its outer quotes (the same instance if it has none)
+     */
+    public static String unquote(String text) {
+        return unquote(text, 0, text.length());
+    }
+    
+    /**
+     * Removes the outer quotes of a region of text, as {@link #unquote(String)}
+     * does for the substring between the offsets.
+     * 
+     * @param source Text containing the literal
+     * @param start Start of the literal (inclusive)
+     * @param end End of the literal (exclusive)
+     * @return The region without its outer quotes
+     */
+    public static String unquote(String source, int start, int end) {
+        int from = start;
+        if (from < end && isQuote(source.charAt(from))) {
+            from++;
+        }
+        
+        // A regex '$' also matches before a final line terminator
+        int terminatorStart = end - finalTerminatorLength(source, start, end);
+        int to = end;
+        int lastChar = terminatorStart - 1;
+        if (lastChar >= from && isQuote(source.charAt(lastChar))) {
+            if (terminatorStart == end) {
+                to = lastChar;
+            } else {
+                return source.substring(from, lastChar) + source.substring(terminatorStart, end);
+            }
+        }
+        
+        if (from == 0 && to == source.length()) {
+            return source;
+        }
+        return source.substring(from, to);
+    }
+    
+    /**
+     * Checks if a character is a quote that delimits string literals.
+     * 
+     * @param c The character
+     * @return true for " and ', false otherwise
+     */
+    public static boolean isQuote(char c) {
+        return c == '"' || c == '\'';
+    }
+    
+    /**
+     * Gets the length of the line terminator that ends a region, as recognized
+     * by a regex '$' without MULTILINE.
+     */
+    private static int finalTerminatorLength(String source, int start, int end) {
+        if (end <= start) {
+            return 0;
+        }
+        char last = source.charAt(end - 1);
+        if (last == '\n') {
+            return end - 2 >= start && source.charAt(end - 2) == '\r' ? 2 : 1;
+        }
+        if (last == '\r' || last == '\u0085' || last == '\u2028' || last == '\u2029') {
+            return 1;
+        }
+        return 0;
+    }
+}
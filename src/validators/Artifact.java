@@ -0,0 +1,68 @@
+package validators;
+
+import ast.html.ElementIdIndex;
+import semantic.ProjectIndex;
+import semantic.SemanticModel;
+import utils.IdentifierRules;
+
+/**
+ * Key of a shared artifact that validators consume, such as the element-ID index.
+ * Artifacts are computed at most once per document by an {@link ArtifactProducer}
+ * and kept in an {@link ArtifactStore}.
+ * 
+ * @param <T> Type of the artifact value
+ * @author eduardo
+ */
+public final class Artifact<T> {
+    /**
+     * Index of HTML element IDs (Requirements #6 and #7).
+     */
+    public static final Artifact<ElementIdIndex> ELEMENT_ID_INDEX =
+            new Artifact<>("element-id-index", ElementIdIndex.class);
+    
+    /**
+     * Scope tree, declarations and literal types (Requirements #2, #3 and #4).
+     */
+    public static final Artifact<SemanticModel> SEMANTIC_MODEL =
+            new Artifact<>("semantic-model", SemanticModel.class);
+    
+    /**
+     * Identifier rule checker with a per-document verdict cache (Requirements #2, #3 and #5).
+     */
+    public static final Artifact<IdentifierRules> IDENTIFIER_RULES =
+            new Artifact<>("identifier-rules", IdentifierRules.class);
+    
+    /**
+     * Tag pairing errors found while parsing (Requirement #8).
+     */
+    public static final Artifact<TagPairingChecker> TAG_PAIRING =
+            new Artifact<>("tag-pairing", TagPairingChecker.class);
+    
+    /**
+     * Declarations of every file of the project; empty when a file is
+     * validated on its own (Requirements #6 and #7).
+     */
+    public static final Artifact<ProjectIndex> PROJECT_INDEX =
+            new Artifact<>("project-index", ProjectIndex.class);
+    
+    private final String name;
+    private final Class<T> type;
+    
+    private Artifact(String name, Class<T> type) {
+        this.name = name;
+        this.type = type;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public Class<T> getType() {
+        return type;
+    }
+    
+    @Override
+    public String toString() {
+        return name;
+    }
+}
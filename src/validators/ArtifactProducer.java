@@ -0,0 +1,32 @@
+package validators;
+
+import ast.html.DocumentNode;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Computes a shared artifact from the parsed document.
+ * 
+ * @param <T> Type of the artifact value
+ * @author eduardo
+ */
+@FunctionalInterface
+public interface ArtifactProducer<T> {
+    /**
+     * Gets the artifacts this producer reads while computing its own.
+     * 
+     * @return Artifacts that must be computed first (empty by default)
+     */
+    default Set<Artifact<?>> getDependencies() {
+        return Collections.emptySet();
+    }
+    
+    /**
+     * Computes the artifact.
+     * 
+     * @param document The root document node of the AST
+     * @param artifacts Store to read dependencies from
+     * @return The artifact value
+     */
+    T produce(DocumentNode document, ArtifactStore artifacts);
+}
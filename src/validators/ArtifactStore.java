@@ -0,0 +1,125 @@
+package validators;
+
+import ast.html.DocumentNode;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lazily computed artifacts of one document.
+ * Producers are registered before validation starts; each artifact is computed
+ * the first time it is requested and then shared. Safe to read from several
+ * validator threads at once.
+ * 
+ * @author eduardo
+ */
+public class ArtifactStore {
+    private final DocumentNode document;
+    private final Map<Artifact<?>, Slot<?>> slots;
+    
+    /**
+     * Creates an empty artifact store for a document.
+     * 
+     * @param document The root document node the artifacts are computed from
+     */
+    public ArtifactStore(DocumentNode document) {
+        this.document = document;
+        this.slots = new HashMap<>();
+    }
+    
+    /**
+     * Registers the producer of an artifact. Must be called before validation starts.
+     * 
+     * @param artifact The artifact key
+     * @param producer Producer that computes the artifact on first use
+     */
+    public <T> void register(Artifact<T> artifact, ArtifactProducer<T> producer) {
+        slots.put(artifact, new Slot<>(artifact, producer));
+    }
+    
+    /**
+     * Checks if an artifact has a registered producer.
+     * 
+     * @param artifact The artifact key
+     * @return true if the artifact can be computed, false otherwise
+     */
+    public boolean isRegistered(Artifact<?> artifact) {
+        return slots.containsKey(artifact);
+    }
+    
+    /**
+     * Gets the artifacts a registered artifact depends on.
+     * 
+     * @param artifact The artifact key
+     * @return Dependencies declared by the artifact's producer
+     */
+    public Set<Artifact<?>> getDependencies(Artifact<?> artifact) {
+        return getSlot(artifact).producer.getDependencies();
+    }
+    
+    /**
+     * Gets an artifact, computing it on first use.
+     * 
+     * @param artifact The artifact key
+     * @return The artifact value
+     * @throws IllegalStateException If no producer is registered or dependencies form a cycle
+     */
+    public <T> T get(Artifact<T> artifact) {
+        return artifact.getType().cast(getSlot(artifact).get());
+    }
+    
+    /**
+     * Checks if an artifact has already been computed.
+     * 
+     * @param artifact The artifact key
+     * @return true if computed, false otherwise
+     */
+    public boolean isComputed(Artifact<?> artifact) {
+        Slot<?> slot = slots.get(artifact);
+        return slot != null && slot.isComputed();
+    }
+    
+    private Slot<?> getSlot(Artifact<?> artifact) {
+        Slot<?> slot = slots.get(artifact);
+        if (slot == null) {
+            throw new IllegalStateException("No producer registered for artifact: " + artifact);
+        }
+        return slot;
+    }
+    
+    /**
+     * Holds one artifact and computes it at most once.
+     */
+    private final class Slot<T> {
+        private final Artifact<T> artifact;
+        private final ArtifactProducer<T> producer;
+        private T value;
+        private boolean computed;
+        private boolean computing;
+        
+        private Slot(Artifact<T> artifact, ArtifactProducer<T> producer) {
+            this.artifact = artifact;
+            this.producer = producer;
+        }
+        
+        private synchronized T get() {
+            if (!computed) {
+                if (computing) {
+                    throw new IllegalStateException("Artifact dependency cycle at: " + artifact);
+                }
+                computing = true;
+                try {
+                    value = producer.produce(document, ArtifactStore.this);
+                    computed = true;
+                } finally {
+                    computing = false;
+                }
+            }
+            return value;
+        }
+        
+        private synchronized boolean isComputed() {
+            return computed;
+        }
+    }
+}
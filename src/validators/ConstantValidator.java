@@ -1,14 +1,17 @@
 package validators;
 
 import ast.Node;
-import ast.html.DocumentNode;
-import ast.html.TagNode;
 import ast.js.ConstantNode;
 import ast.js.IdentifierNode;
 import ast.js.ScriptNode;
-import ast.js.VariableNode;
 import errors.ErrorCollector;
-import utils.ReservedWords;
+import semantic.SemanticModel;
+import utils.IdentifierRules;
+import utils.IdentifierVerdict;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 /**
  * Validates JavaScript constant declarations (Requirement #3).
@@ -17,57 +20,43 @@ import utils.ReservedWords;
  * @author eduardo
  */
 public class ConstantValidator implements Validator {
+    /**
+     * Rule identifier of this validator.
+     */
+    public static final String RULE_ID = "constant";
+    
+    private static final Set<Artifact<?>> REQUIRED_ARTIFACTS = Collections.unmodifiableSet(
+            new LinkedHashSet<>(Arrays.asList(Artifact.SEMANTIC_MODEL, Artifact.IDENTIFIER_RULES)));
+    
+    private SemanticModel semanticModel;
+    private IdentifierRules identifierRules;
     
     @Override
-    public void validate(DocumentNode document, ErrorCollector errorCollector) {
-        // Traverse all script nodes
-        traverseDocument(document, errorCollector);
+    public String getRuleId() {
+        return RULE_ID;
     }
     
-    /**
-     * Traverses the document to find all script nodes.
-     */
-    private void traverseDocument(Node node, ErrorCollector errorCollector) {
-        if (node instanceof ScriptNode) {
-            ScriptNode scriptNode = (ScriptNode) node;
-            validateScriptNode(scriptNode, errorCollector);
-        } else if (node instanceof DocumentNode) {
-            DocumentNode doc = (DocumentNode) node;
-            for (TagNode tag : doc.getChildren()) {
-                traverseTag(tag, errorCollector);
-            }
-        } else if (node instanceof TagNode) {
-            traverseTag((TagNode) node, errorCollector);
-        }
+    @Override
+    public Set<Artifact<?>> getRequiredArtifacts() {
+        return REQUIRED_ARTIFACTS;
     }
     
-    /**
-     * Traverses HTML tags to find script nodes.
-     */
-    private void traverseTag(TagNode tag, ErrorCollector errorCollector) {
-        for (Node child : tag.getChildren()) {
-            if (child instanceof ScriptNode) {
-                validateScriptNode((ScriptNode) child, errorCollector);
-            } else if (child instanceof TagNode) {
-                traverseTag((TagNode) child, errorCollector);
-            }
-        }
+    @Override
+    public void bind(ArtifactStore artifacts) {
+        semanticModel = artifacts.get(Artifact.SEMANTIC_MODEL);
+        identifierRules = artifacts.get(Artifact.IDENTIFIER_RULES);
     }
     
     /**
-     * Validates a script node for constant declarations.
+     * Validates the constants declared at the top level of a script.
+     * Whether a var or let precedes each one in its scope comes from the semantic model.
      */
-    private void validateScriptNode(ScriptNode scriptNode, ErrorCollector errorCollector) {
-        boolean foundVarOrLet = false;
-        
-        for (int i = 0; i < scriptNode.getStatements().size(); i++) {
-            Node statement = scriptNode.getStatements().get(i);
-            
+    @Override
+    public void visitScript(ScriptNode scriptNode, ErrorCollector errorCollector) {
+        for (Node statement : scriptNode.getStatements()) {
             if (statement instanceof ConstantNode) {
                 ConstantNode constNode = (ConstantNode) statement;
-                validateConstant(constNode, errorCollector, foundVarOrLet);
-            } else if (statement instanceof VariableNode) {
-                foundVarOrLet = true;
+                validateConstant(constNode, errorCollector, semanticModel.isDeclaredAfterVarOrLet(constNode));
             }
         }
     }
@@ -82,14 +71,15 @@ public class ConstantValidator implements Validator {
         int lineNumber = identifier.getLineNumber();
         
         // Check identifier rules (same as Requirement #2)
-        if (!isValidIdentifier(name)) {
+        IdentifierVerdict verdict = identifierRules.check(name);
+        if (!verdict.followsIdentifierRules()) {
             errorCollector.addError(lineNumber, 
                     String.format("Constant name '%s' does not follow identifier rules", name), 
                     "CONSTANT");
         }
         
         // Check if reserved word
-        if (ReservedWords.isReserved(name)) {
+        if (verdict.isReserved()) {
             errorCollector.addError(lineNumber, 
                     String.format("Constant name '%s' is a JavaScript reserved word", name), 
                     "CONSTANT");
@@ -109,31 +99,4 @@ public class ConstantValidator implements Validator {
                     "CONSTANT");
         }
     }
-    
-    /**
-     * Checks if a name is a valid identifier.
-     */
-    private boolean isValidIdentifier(String name) {
-        if (name == null || name.isEmpty()) {
-            return false;
-        }
-        
-        char firstChar = name.charAt(0);
-        if (!Character.isLetter(firstChar) && firstChar != '_' && 
-            !Character.isUnicodeIdentifierStart(firstChar)) {
-            return false;
-        }
-        
-        for (int i = 1; i < name.length(); i++) {
-            char c = name.charAt(i);
-            if (!Character.isLetterOrDigit(c) && c != '_' && 
-                !Character.isUnicodeIdentifierPart(c)) {
-                return false;
-            }
-        }
-        
-        return !name.contains(" ") && !name.contains("-") && 
-               !name.contains("+") && !name.contains("*") && !name.contains("/");
-    }
 }
-
@@ -0,0 +1,24 @@
+package validators;
+
+/**
+ * Rough cost of running a rule on a document, declared by its provider.
+ * 
+ * @author eduardo
+ */
+public enum CostClass {
+    /**
+     * Constant work per visited node and no shared analysis.
+     */
+    LOW,
+    
+    /**
+     * Needs a shared whole-document analysis such as the semantic model.
+     */
+    MEDIUM,
+    
+    /**
+     * Does substantially more work than the other rules (e.g. cross-file or
+     * super-linear checks); worth leaving out of quick runs.
+     */
+    HIGH
+}
@@ -1,13 +1,22 @@
 package validators;
 
 import ast.Node;
-import ast.html.DocumentNode;
-import ast.html.TagNode;
+import ast.html.ElementIdIndex;
+import ast.js.AssignmentNode;
 import ast.js.CallNode;
+import ast.js.ConstantNode;
 import ast.js.IdentifierNode;
-import ast.js.ScriptNode;
+import ast.js.LiteralKind;
+import ast.js.LiteralNode;
+import ast.js.VariableNode;
 import errors.ErrorCollector;
-import java.util.List;
+import semantic.ProjectIndex;
+import utils.CancellationToken;
+import utils.StringLiterals;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 /**
  * Validates JavaScript data input operations (Requirement #6).
@@ -16,95 +25,76 @@ import java.util.List;
  * @author eduardo
  */
 public class DataInputValidator implements Validator {
-    private final List<String> htmlElementIds;
+    /**
+     * Rule identifier of this validator.
+     */
+    public static final String RULE_ID = "data-input";
+    
+    private static final Set<Artifact<?>> REQUIRED_ARTIFACTS = Collections.unmodifiableSet(
+            new LinkedHashSet<>(Arrays.asList(Artifact.ELEMENT_ID_INDEX, Artifact.PROJECT_INDEX)));
+    
+    private ElementIdIndex elementIdIndex;
+    private ProjectIndex projectIndex = ProjectIndex.EMPTY; // IDs declared in other files of the project
     
     /**
      * Creates a new data input validator.
+     * The element ID index is bound from the shared artifacts before validation.
+     */
+    public DataInputValidator() {
+    }
+    
+    /**
+     * Creates a new data input validator with a known element ID index.
      * 
-     * @param htmlElementIds List of HTML element IDs found in the document
+     * @param elementIdIndex Index of HTML element IDs found in the document
      */
-    public DataInputValidator(List<String> htmlElementIds) {
-        this.htmlElementIds = htmlElementIds;
+    public DataInputValidator(ElementIdIndex elementIdIndex) {
+        this.elementIdIndex = elementIdIndex;
     }
     
     @Override
-    public void validate(DocumentNode document, ErrorCollector errorCollector) {
-        traverseDocument(document, errorCollector);
+    public String getRuleId() {
+        return RULE_ID;
     }
     
-    /**
-     * Traverses the document to find all script nodes.
-     */
-    private void traverseDocument(Node node, ErrorCollector errorCollector) {
-        if (node instanceof ScriptNode) {
-            ScriptNode scriptNode = (ScriptNode) node;
-            for (Node statement : scriptNode.getStatements()) {
-                validateStatement(statement, errorCollector);
-            }
-        } else if (node instanceof DocumentNode) {
-            DocumentNode doc = (DocumentNode) node;
-            for (TagNode tag : doc.getChildren()) {
-                traverseTag(tag, errorCollector);
-            }
-        } else if (node instanceof TagNode) {
-            traverseTag((TagNode) node, errorCollector);
-        }
+    @Override
+    public Set<Artifact<?>> getRequiredArtifacts() {
+        return REQUIRED_ARTIFACTS;
     }
     
-    /**
-     * Traverses HTML tags to find script nodes.
-     */
-    private void traverseTag(TagNode tag, ErrorCollector errorCollector) {
-        for (Node child : tag.getChildren()) {
-            if (child instanceof ScriptNode) {
-                ScriptNode scriptNode = (ScriptNode) child;
-                for (Node statement : scriptNode.getStatements()) {
-                    validateStatement(statement, errorCollector);
-                }
-            } else if (child instanceof TagNode) {
-                traverseTag((TagNode) child, errorCollector);
-            }
-        }
+    @Override
+    public void bind(ArtifactStore artifacts) {
+        elementIdIndex = artifacts.get(Artifact.ELEMENT_ID_INDEX);
+        projectIndex = artifacts.get(Artifact.PROJECT_INDEX);
     }
     
-    /**
-     * Validates statements for getElementById calls.
-     */
-    private void validateStatement(Node statement, ErrorCollector errorCollector) {
-        if (statement instanceof ast.js.AssignmentNode) {
-            ast.js.AssignmentNode assign = (ast.js.AssignmentNode) statement;
-            validateNode(assign.getRightHandSide(), errorCollector);
-        } else if (statement instanceof ast.js.ConstantNode) {
-            ast.js.ConstantNode constNode = (ast.js.ConstantNode) statement;
-            validateNode(constNode.getValue(), errorCollector);
-        } else if (statement instanceof ast.js.VariableNode) {
-            ast.js.VariableNode varNode = (ast.js.VariableNode) statement;
-            if (varNode.getInitialValue() != null) {
-                validateNode(varNode.getInitialValue(), errorCollector);
-            }
-        } else if (statement instanceof ast.js.FunctionNode) {
-            ast.js.FunctionNode funcNode = (ast.js.FunctionNode) statement;
-            for (Node bodyStmt : funcNode.getBodyStatements()) {
-                validateStatement(bodyStmt, errorCollector);
-            }
+    @Override
+    public void visitAssignment(AssignmentNode assign, ErrorCollector errorCollector) {
+        validateNode(assign.getRightHandSide(), errorCollector);
+    }
+    
+    @Override
+    public void visitConstant(ConstantNode constNode, ErrorCollector errorCollector) {
+        validateNode(constNode.getValue(), errorCollector);
+    }
+    
+    @Override
+    public void visitVariable(VariableNode varNode, ErrorCollector errorCollector) {
+        if (varNode.getInitialValue() != null) {
+            validateNode(varNode.getInitialValue(), errorCollector);
         }
     }
     
     /**
      * Validates a node for getElementById calls.
+     * Expressions cannot contain themselves (checked when the AST is numbered),
+     * so the recursion needs no visited set. Large expressions stop early
+     * once the validator's token is cancelled (e.g. its time budget ran out).
      */
     private void validateNode(Node node, ErrorCollector errorCollector) {
-        validateNode(node, errorCollector, new java.util.HashSet<>());
-    }
-    
-    /**
-     * Validates a node for getElementById calls with cycle detection.
-     */
-    private void validateNode(Node node, ErrorCollector errorCollector, java.util.Set<Node> visited) {
-        if (node == null || visited.contains(node)) {
-            return; // Prevent infinite recursion
+        if (node == null || CancellationToken.isCancelled(errorCollector.getCancellationToken())) {
+            return;
         }
-        visited.add(node);
         
         if (node instanceof CallNode) {
             CallNode call = (CallNode) node;
@@ -112,7 +102,7 @@ public class DataInputValidator implements Validator {
         } else if (node instanceof ast.js.ExpressionNode) {
             ast.js.ExpressionNode expr = (ast.js.ExpressionNode) node;
             for (Node operand : expr.getOperands()) {
-                validateNode(operand, errorCollector, visited);
+                validateNode(operand, errorCollector);
             }
         }
     }
@@ -136,10 +126,10 @@ public class DataInputValidator implements Validator {
                     
                     if (elementId != null) {
                         // Remove quotes
-                        elementId = elementId.replaceAll("^[\"']|[\"']$", "");
+                        elementId = StringLiterals.unquote(elementId);
                         
-                        // Check if ID exists in HTML
-                        if (!htmlElementIds.contains(elementId)) {
+                        // Check if ID exists in this file or another file of the project
+                        if (!elementIdIndex.contains(elementId) && !projectIndex.containsElementId(elementId)) {
                             errorCollector.addError(call.getLineNumber(), 
                                     String.format("getElementById references non-existent element ID: '%s'", elementId), 
                                     "DATA_INPUT");
@@ -151,16 +141,14 @@ public class DataInputValidator implements Validator {
     }
     
     /**
-     * Extracts the ID string from an argument node.
+     * Extracts the ID string, still quoted, from an argument node.
+     * Only string literals name an ID; identifiers and other expressions are skipped.
      */
     private String extractIdFromArgument(Node arg) {
-        if (arg instanceof IdentifierNode) {
-            IdentifierNode id = (IdentifierNode) arg;
-            String value = id.getName();
-            // Check if it's a string literal
-            if ((value.startsWith("\"") && value.endsWith("\"")) || 
-                (value.startsWith("'") && value.endsWith("'"))) {
-                return value;
+        if (arg instanceof LiteralNode) {
+            LiteralNode literal = (LiteralNode) arg;
+            if (literal.getKind() == LiteralKind.STRING) {
+                return literal.getName();
             }
         }
         return null;
@@ -1,13 +1,16 @@
 package validators;
 
 import ast.Node;
-import ast.html.DocumentNode;
-import ast.html.TagNode;
+import ast.html.ElementIdIndex;
 import ast.js.AssignmentNode;
 import ast.js.IdentifierNode;
-import ast.js.ScriptNode;
 import errors.ErrorCollector;
-import java.util.List;
+import semantic.ProjectIndex;
+import utils.StringLiterals;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 /**
  * Validates JavaScript data output operations (Requirement #7).
@@ -16,88 +19,54 @@ import java.util.List;
  * @author eduardo
  */
 public class DataOutputValidator implements Validator {
-    private final List<String> htmlElementIds;
-    
     /**
-     * Creates a new data output validator.
-     * 
-     * @param htmlElementIds List of HTML element IDs found in the document
+     * Rule identifier of this validator.
      */
-    public DataOutputValidator(List<String> htmlElementIds) {
-        this.htmlElementIds = htmlElementIds;
-    }
+    public static final String RULE_ID = "data-output";
     
-    @Override
-    public void validate(DocumentNode document, ErrorCollector errorCollector) {
-        traverseDocument(document, errorCollector);
-    }
+    private static final Set<Artifact<?>> REQUIRED_ARTIFACTS = Collections.unmodifiableSet(
+            new LinkedHashSet<>(Arrays.asList(Artifact.ELEMENT_ID_INDEX, Artifact.PROJECT_INDEX)));
+    
+    private ElementIdIndex elementIdIndex;
+    private ProjectIndex projectIndex = ProjectIndex.EMPTY; // IDs declared in other files of the project
     
     /**
-     * Traverses the document to find all script nodes.
+     * Creates a new data output validator.
+     * The element ID index is bound from the shared artifacts before validation.
      */
-    private void traverseDocument(Node node, ErrorCollector errorCollector) {
-        if (node instanceof ScriptNode) {
-            ScriptNode scriptNode = (ScriptNode) node;
-            for (Node statement : scriptNode.getStatements()) {
-                validateStatement(statement, errorCollector);
-            }
-        } else if (node instanceof DocumentNode) {
-            DocumentNode doc = (DocumentNode) node;
-            for (TagNode tag : doc.getChildren()) {
-                traverseTag(tag, errorCollector);
-            }
-        } else if (node instanceof TagNode) {
-            traverseTag((TagNode) node, errorCollector);
-        }
+    public DataOutputValidator() {
     }
     
     /**
-     * Traverses HTML tags to find script nodes.
+     * Creates a new data output validator with a known element ID index.
+     * 
+     * @param elementIdIndex Index of HTML element IDs found in the document
      */
-    private void traverseTag(TagNode tag, ErrorCollector errorCollector) {
-        for (Node child : tag.getChildren()) {
-            if (child instanceof ScriptNode) {
-                ScriptNode scriptNode = (ScriptNode) child;
-                for (Node statement : scriptNode.getStatements()) {
-                    validateStatement(statement, errorCollector);
-                }
-            } else if (child instanceof TagNode) {
-                traverseTag((TagNode) child, errorCollector);
-            }
-        }
+    public DataOutputValidator(ElementIdIndex elementIdIndex) {
+        this.elementIdIndex = elementIdIndex;
     }
     
-    /**
-     * Validates statements for innerHTML assignments.
-     */
-    private void validateStatement(Node statement, ErrorCollector errorCollector) {
-        validateStatement(statement, errorCollector, new java.util.HashSet<>());
+    @Override
+    public String getRuleId() {
+        return RULE_ID;
     }
     
-    /**
-     * Validates statements for innerHTML assignments with cycle detection.
-     */
-    private void validateStatement(Node statement, ErrorCollector errorCollector, java.util.Set<Node> visited) {
-        if (statement == null || visited.contains(statement)) {
-            return; // Prevent infinite recursion
-        }
-        visited.add(statement);
-        
-        if (statement instanceof AssignmentNode) {
-            AssignmentNode assign = (AssignmentNode) statement;
-            validateAssignment(assign, errorCollector);
-        } else if (statement instanceof ast.js.FunctionNode) {
-            ast.js.FunctionNode funcNode = (ast.js.FunctionNode) statement;
-            for (Node bodyStmt : funcNode.getBodyStatements()) {
-                validateStatement(bodyStmt, errorCollector, visited);
-            }
-        }
+    @Override
+    public Set<Artifact<?>> getRequiredArtifacts() {
+        return REQUIRED_ARTIFACTS;
+    }
+    
+    @Override
+    public void bind(ArtifactStore artifacts) {
+        elementIdIndex = artifacts.get(Artifact.ELEMENT_ID_INDEX);
+        projectIndex = artifacts.get(Artifact.PROJECT_INDEX);
     }
     
     /**
      * Validates an assignment for innerHTML pattern.
      */
-    private void validateAssignment(AssignmentNode assignment, ErrorCollector errorCollector) {
+    @Override
+    public void visitAssignment(AssignmentNode assignment, ErrorCollector errorCollector) {
         Node lhs = assignment.getLeftHandSide();
         
         if (lhs instanceof IdentifierNode) {
@@ -110,11 +79,8 @@ public class DataOutputValidator implements Validator {
                 String elementId = extractIdFromInnerHTML(lhsName);
                 
                 if (elementId != null) {
-                    // Remove quotes
-                    elementId = elementId.replaceAll("^[\"']|[\"']$", "");
-                    
-                    // Check if ID exists in HTML
-                    if (!htmlElementIds.contains(elementId)) {
+                    // Check if ID exists in this file or another file of the project
+                    if (!elementIdIndex.contains(elementId) && !projectIndex.containsElementId(elementId)) {
                         errorCollector.addError(assignment.getLineNumber(), 
                                 String.format("innerHTML assignment references non-existent element ID: '%s'", elementId), 
                                 "DATA_OUTPUT");
@@ -125,7 +91,7 @@ public class DataOutputValidator implements Validator {
     }
     
     /**
-     * Extracts the element ID from an innerHTML assignment pattern.
+     * Extracts the element ID, without quotes, from an innerHTML assignment pattern.
      * Pattern: document.getElementById("id").innerHTML
      */
     private String extractIdFromInnerHTML(String expression) {
@@ -140,7 +106,7 @@ public class DataOutputValidator implements Validator {
                 char quoteChar = expression.charAt(startQuote);
                 int endQuote = expression.indexOf(quoteChar, startQuote + 1);
                 if (endQuote > startQuote) {
-                    return expression.substring(startQuote, endQuote + 1);
+                    return StringLiterals.unquote(expression, startQuote, endQuote + 1);
                 }
             }
         }
@@ -1,13 +1,14 @@
 package validators;
 
 import ast.Node;
-import ast.html.DocumentNode;
-import ast.html.TagNode;
 import ast.js.FunctionNode;
 import ast.js.IdentifierNode;
 import ast.js.ScriptNode;
 import errors.ErrorCollector;
-import utils.ReservedWords;
+import utils.IdentifierRules;
+import utils.IdentifierVerdict;
+import java.util.Collections;
+import java.util.Set;
 
 /**
  * Validates JavaScript function definitions (Requirement #5).
@@ -16,47 +17,37 @@ import utils.ReservedWords;
  * @author eduardo
  */
 public class FunctionValidator implements Validator {
+    /**
+     * Rule identifier of this validator.
+     */
+    public static final String RULE_ID = "function";
     
     @Override
-    public void validate(DocumentNode document, ErrorCollector errorCollector) {
-        traverseDocument(document, errorCollector);
+    public String getRuleId() {
+        return RULE_ID;
     }
     
-    /**
-     * Traverses the document to find all script nodes.
-     */
-    private void traverseDocument(Node node, ErrorCollector errorCollector) {
-        if (node instanceof ScriptNode) {
-            ScriptNode scriptNode = (ScriptNode) node;
-            for (Node statement : scriptNode.getStatements()) {
-                if (statement instanceof FunctionNode) {
-                    validateFunction((FunctionNode) statement, errorCollector);
-                }
-            }
-        } else if (node instanceof DocumentNode) {
-            DocumentNode doc = (DocumentNode) node;
-            for (TagNode tag : doc.getChildren()) {
-                traverseTag(tag, errorCollector);
-            }
-        } else if (node instanceof TagNode) {
-            traverseTag((TagNode) node, errorCollector);
-        }
+    private IdentifierRules identifierRules;
+    
+    @Override
+    public Set<Artifact<?>> getRequiredArtifacts() {
+        return Collections.singleton(Artifact.IDENTIFIER_RULES);
+    }
+    
+    @Override
+    public void bind(ArtifactStore artifacts) {
+        identifierRules = artifacts.get(Artifact.IDENTIFIER_RULES);
     }
     
     /**
-     * Traverses HTML tags to find script nodes.
+     * Validates the functions declared at the top level of a script.
+     * Functions nested in other function bodies are not checked by this rule.
      */
-    private void traverseTag(TagNode tag, ErrorCollector errorCollector) {
-        for (Node child : tag.getChildren()) {
-            if (child instanceof ScriptNode) {
-                ScriptNode scriptNode = (ScriptNode) child;
-                for (Node statement : scriptNode.getStatements()) {
-                    if (statement instanceof FunctionNode) {
-                        validateFunction((FunctionNode) statement, errorCollector);
-                    }
-                }
-            } else if (child instanceof TagNode) {
-                traverseTag((TagNode) child, errorCollector);
+    @Override
+    public void visitScript(ScriptNode scriptNode, ErrorCollector errorCollector) {
+        for (Node statement : scriptNode.getStatements()) {
+            if (statement instanceof FunctionNode) {
+                validateFunction((FunctionNode) statement, errorCollector);
             }
         }
     }
@@ -75,14 +66,15 @@ public class FunctionValidator implements Validator {
         }
         
         // Check identifier rules
-        if (!isValidIdentifier(functionName)) {
+        IdentifierVerdict verdict = identifierRules.check(functionName);
+        if (!verdict.followsIdentifierRules()) {
             errorCollector.addError(lineNumber, 
                     String.format("Function name '%s' does not follow identifier rules", functionName), 
                     "FUNCTION");
         }
         
         // Check if reserved word
-        if (ReservedWords.isReserved(functionName)) {
+        if (verdict.isReserved()) {
             errorCollector.addError(lineNumber, 
                     String.format("Function name '%s' is a JavaScript reserved word", functionName), 
                     "FUNCTION");
@@ -91,12 +83,13 @@ public class FunctionValidator implements Validator {
         // Validate parameters
         for (IdentifierNode param : function.getParameters()) {
             String paramName = param.getName();
-            if (!isValidIdentifier(paramName)) {
+            IdentifierVerdict paramVerdict = identifierRules.check(paramName);
+            if (!paramVerdict.followsIdentifierRules()) {
                 errorCollector.addError(param.getLineNumber(), 
                         String.format("Function parameter '%s' does not follow identifier rules", paramName), 
                         "FUNCTION");
             }
-            if (ReservedWords.isReserved(paramName)) {
+            if (paramVerdict.isReserved()) {
                 errorCollector.addError(param.getLineNumber(), 
                         String.format("Function parameter '%s' is a JavaScript reserved word", paramName), 
                         "FUNCTION");
@@ -110,31 +103,4 @@ public class FunctionValidator implements Validator {
                     "FUNCTION");
         }
     }
-    
-    /**
-     * Checks if a name is a valid identifier.
-     */
-    private boolean isValidIdentifier(String name) {
-        if (name == null || name.isEmpty()) {
-            return false;
-        }
-        
-        char firstChar = name.charAt(0);
-        if (!Character.isLetter(firstChar) && firstChar != '_' && 
-            !Character.isUnicodeIdentifierStart(firstChar)) {
-            return false;
-        }
-        
-        for (int i = 1; i < name.length(); i++) {
-            char c = name.charAt(i);
-            if (!Character.isLetterOrDigit(c) && c != '_' && 
-                !Character.isUnicodeIdentifierPart(c)) {
-                return false;
-            }
-        }
-        
-        return !name.contains(" ") && !name.contains("-") && 
-               !name.contains("+") && !name.contains("*") && !name.contains("/");
-    }
 }
-
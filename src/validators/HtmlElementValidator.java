@@ -2,7 +2,9 @@ package validators;
 
 import ast.html.AttributeNode;
 import ast.html.DocumentNode;
+import ast.html.ElementIdIndex;
 import ast.html.TagNode;
+import utils.StringLiterals;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -11,17 +13,31 @@ import java.util.Set;
 /**
  * Tracks HTML element IDs for use by DataInputValidator and DataOutputValidator.
  * This is a helper validator that builds a registry of HTML element IDs.
+ * The parser already builds the same index while parsing; this class is used
+ * for documents that were not produced by the parser.
  * 
  * @author eduardo
  */
 public class HtmlElementValidator {
-    private final Set<String> htmlElementIds;
+    private ElementIdIndex elementIdIndex;
     
     /**
      * Creates a new HTML element validator.
      */
     public HtmlElementValidator() {
-        this.htmlElementIds = new HashSet<>();
+        this.elementIdIndex = new ElementIdIndex();
+    }
+    
+    /**
+     * Traverses the document and builds an index of all HTML element IDs.
+     * 
+     * @param document The root document node
+     * @return Index of all HTML element IDs found
+     */
+    public ElementIdIndex buildIndex(DocumentNode document) {
+        elementIdIndex = new ElementIdIndex();
+        traverseDocument(document);
+        return elementIdIndex;
     }
     
     /**
@@ -31,9 +47,7 @@ public class HtmlElementValidator {
      * @return List of all HTML element IDs found
      */
     public List<String> collectElementIds(DocumentNode document) {
-        htmlElementIds.clear();
-        traverseDocument(document);
-        return new ArrayList<>(htmlElementIds);
+        return new ArrayList<>(buildIndex(document).getIds());
     }
     
     /**
@@ -60,9 +74,9 @@ public class HtmlElementValidator {
                 String idValue = attr.getValue();
                 if (idValue != null && !idValue.isEmpty()) {
                     // Remove quotes if present
-                    idValue = idValue.replaceAll("^[\"']|[\"']$", "");
+                    idValue = StringLiterals.unquote(idValue);
                     if (!idValue.isEmpty()) {
-                        htmlElementIds.add(idValue);
+                        elementIdIndex.add(idValue, tag, tag.getLineNumber());
                     }
                 }
             }
@@ -82,7 +96,7 @@ public class HtmlElementValidator {
      * @return Set of element IDs
      */
     public Set<String> getHtmlElementIds() {
-        return new HashSet<>(htmlElementIds);
+        return new HashSet<>(elementIdIndex.getIds());
     }
 }
 
@@ -4,17 +4,46 @@ import ast.Node;
 import ast.html.DocumentNode;
 import ast.html.TagNode;
 import errors.ErrorCollector;
+import java.util.Collections;
+import java.util.Set;
 
 /**
  * Validates HTML structure (Requirement #8 - Most Important, 25 points).
- * Validates DOCTYPE, required tags, and proper nesting.
+ * Validates DOCTYPE, required tags, and proper nesting. Nesting is checked
+ * by a {@link TagPairingChecker} while the document is parsed.
  * 
  * @author eduardo
  */
 public class HtmlStructureValidator implements Validator {
+    /**
+     * Rule identifier of this validator.
+     */
+    public static final String RULE_ID = "html-structure";
+    
+    private TagPairingChecker tagPairing;
+    
+    @Override
+    public String getRuleId() {
+        return RULE_ID;
+    }
+    
+    @Override
+    public boolean needsScriptNodes() {
+        return false;
+    }
+    
+    @Override
+    public Set<Artifact<?>> getRequiredArtifacts() {
+        return Collections.singleton(Artifact.TAG_PAIRING);
+    }
     
     @Override
-    public void validate(DocumentNode document, ErrorCollector errorCollector) {
+    public void bind(ArtifactStore artifacts) {
+        tagPairing = artifacts.get(Artifact.TAG_PAIRING);
+    }
+    
+    @Override
+    public void visitDocument(DocumentNode document, ErrorCollector errorCollector) {
         // Check DOCTYPE
         validateDOCTYPE(document, errorCollector);
         
@@ -22,7 +51,7 @@ public class HtmlStructureValidator implements Validator {
         validateHTMLStructure(document, errorCollector);
         
         // Check tag pairing
-        validateTagPairing(document, errorCollector);
+        validateTagPairing(errorCollector);
     }
     
     /**
@@ -101,42 +130,13 @@ public class HtmlStructureValidator implements Validator {
     }
     
     /**
-     * Validates that all tags have proper opening and closing pairs.
+     * Reports the tag pairing errors found while the document was parsed.
+     * Documents that were not parsed with a {@link TagPairingChecker} attached
+     * have no pairing information, so nothing is reported for them.
      */
-    private void validateTagPairing(DocumentNode document, ErrorCollector errorCollector) {
-        validateTagPairingRecursive(document, errorCollector);
-    }
-    
-    /**
-     * Recursively validates tag pairing.
-     */
-    private void validateTagPairingRecursive(Node node, ErrorCollector errorCollector) {
-        if (node instanceof DocumentNode) {
-            DocumentNode doc = (DocumentNode) node;
-            for (TagNode tag : doc.getChildren()) {
-                validateTagPairingRecursive(tag, errorCollector);
-            }
-        } else if (node instanceof TagNode) {
-            TagNode tag = (TagNode) node;
-            
-            // Self-closing tags don't need closing tags
-            if (tag.isSelfClosing()) {
-                return;
-            }
-            
-            // Check if tag has a matching closing tag
-            // This is a simplified check - in a full implementation, we'd track
-            // opening and closing tags more carefully
-            String tagName = tag.getTagName();
-            
-            // DOCTYPE doesn't need a closing tag
-            if (tagName.equals("!DOCTYPE")) {
-                return;
-            }
-            
-            // For other tags, we check if they have children or are properly closed
-            // The parser should handle this, but we validate structure here
+    private void validateTagPairing(ErrorCollector errorCollector) {
+        if (tagPairing != null) {
+            errorCollector.addAll(tagPairing.getErrors());
         }
     }
 }
-
@@ -1,12 +1,18 @@
 package validators;
 
 import ast.Node;
-import ast.html.DocumentNode;
+import ast.js.FunctionNode;
 import ast.js.IdentifierNode;
-import ast.js.ScriptNode;
 import ast.js.VariableNode;
 import errors.ErrorCollector;
-import utils.ReservedWords;
+import semantic.SemanticModel;
+import semantic.Symbol;
+import utils.IdentifierRules;
+import utils.IdentifierVerdict;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 /**
  * Validates JavaScript identifiers (Requirement #2).
@@ -15,129 +21,103 @@ import utils.ReservedWords;
  * @author eduardo
  */
 public class IdentifierValidator implements Validator {
+    /**
+     * Rule identifier of this validator.
+     */
+    public static final String RULE_ID = "identifier";
+    
+    private static final Set<Artifact<?>> REQUIRED_ARTIFACTS = Collections.unmodifiableSet(
+            new LinkedHashSet<>(Arrays.asList(Artifact.SEMANTIC_MODEL, Artifact.IDENTIFIER_RULES)));
+    
+    private SemanticModel semanticModel;
+    private IdentifierRules identifierRules;
     
     @Override
-    public void validate(DocumentNode document, ErrorCollector errorCollector) {
-        // Traverse all script nodes
-        traverseDocument(document, errorCollector);
+    public String getRuleId() {
+        return RULE_ID;
     }
     
-    /**
-     * Traverses the document to find all script nodes and validate identifiers.
-     */
-    private void traverseDocument(Node node, ErrorCollector errorCollector) {
-        if (node instanceof ScriptNode) {
-            ScriptNode scriptNode = (ScriptNode) node;
-            for (Node statement : scriptNode.getStatements()) {
-                validateStatement(statement, errorCollector);
-            }
-        } else if (node instanceof DocumentNode) {
-            DocumentNode doc = (DocumentNode) node;
-            for (ast.html.TagNode tag : doc.getChildren()) {
-                traverseTag(tag, errorCollector);
-            }
-        } else if (node instanceof ast.html.TagNode) {
-            traverseTag((ast.html.TagNode) node, errorCollector);
-        }
+    @Override
+    public Set<Artifact<?>> getRequiredArtifacts() {
+        return REQUIRED_ARTIFACTS;
     }
     
-    /**
-     * Traverses HTML tags to find script nodes.
-     */
-    private void traverseTag(ast.html.TagNode tag, ErrorCollector errorCollector) {
-        for (Node child : tag.getChildren()) {
-            if (child instanceof ScriptNode) {
-                ScriptNode scriptNode = (ScriptNode) child;
-                for (Node statement : scriptNode.getStatements()) {
-                    validateStatement(statement, errorCollector);
-                }
-            } else if (child instanceof ast.html.TagNode) {
-                traverseTag((ast.html.TagNode) child, errorCollector);
-            }
+    @Override
+    public void bind(ArtifactStore artifacts) {
+        semanticModel = artifacts.get(Artifact.SEMANTIC_MODEL);
+        identifierRules = artifacts.get(Artifact.IDENTIFIER_RULES);
+    }
+    
+    @Override
+    public void visitVariable(VariableNode varNode, ErrorCollector errorCollector) {
+        validateDeclaration(varNode, errorCollector);
+    }
+    
+    @Override
+    public void visitFunction(FunctionNode funcNode, ErrorCollector errorCollector) {
+        // Validate function name, then parameters (body statements are visited by the walker)
+        validateDeclaration(funcNode, errorCollector);
+        for (IdentifierNode param : funcNode.getParameters()) {
+            validateDeclaration(param, errorCollector);
         }
     }
     
     /**
-     * Validates identifiers in a statement.
+     * Validates the name declared by a node, as recorded in the semantic model.
      */
-    private void validateStatement(Node statement, ErrorCollector errorCollector) {
-        if (statement instanceof VariableNode) {
-            VariableNode varNode = (VariableNode) statement;
-            validateIdentifier(varNode.getIdentifier(), errorCollector);
-        } else if (statement instanceof ast.js.FunctionNode) {
-            ast.js.FunctionNode funcNode = (ast.js.FunctionNode) statement;
-            // Validate function name
-            IdentifierNode funcName = new IdentifierNode(funcNode.getFunctionName(), 
-                    funcNode.getLineNumber(), funcNode.getColumnNumber());
-            validateIdentifier(funcName, errorCollector);
-            // Validate parameters
-            for (IdentifierNode param : funcNode.getParameters()) {
-                validateIdentifier(param, errorCollector);
-            }
-            // Validate body statements
-            for (Node bodyStmt : funcNode.getBodyStatements()) {
-                validateStatement(bodyStmt, errorCollector);
-            }
+    private void validateDeclaration(Node declaration, ErrorCollector errorCollector) {
+        Symbol symbol = semanticModel.getSymbol(declaration);
+        if (symbol != null) {
+            validateIdentifier(symbol.getName(), symbol.getLineNumber(), errorCollector);
         }
     }
     
     /**
      * Validates a single identifier according to Requirement #2 rules.
      */
-    private void validateIdentifier(IdentifierNode identifier, ErrorCollector errorCollector) {
-        String name = identifier.getName();
-        int lineNumber = identifier.getLineNumber();
+    private void validateIdentifier(String name, int lineNumber, ErrorCollector errorCollector) {
+        IdentifierVerdict verdict = identifierRules.check(name);
         
-        if (name == null || name.isEmpty()) {
+        if (verdict.isEmpty()) {
             errorCollector.addError(lineNumber, "Identifier cannot be empty", "IDENTIFIER");
             return;
         }
         
         // Check if starts with valid character
-        char firstChar = name.charAt(0);
-        if (!Character.isLetter(firstChar) && firstChar != '_' && 
-            !Character.isUnicodeIdentifierStart(firstChar)) {
+        if (!verdict.hasValidStart()) {
             errorCollector.addError(lineNumber, 
                     String.format("Identifier '%s' must start with a letter, underscore, or Unicode letter", name), 
                     "IDENTIFIER");
         }
         
         // Check remaining characters
-        for (int i = 1; i < name.length(); i++) {
-            char c = name.charAt(i);
-            if (!Character.isLetterOrDigit(c) && c != '_' && 
-                !Character.isUnicodeIdentifierPart(c)) {
-                errorCollector.addError(lineNumber, 
-                        String.format("Identifier '%s' contains invalid character '%c'", name, c), 
-                        "IDENTIFIER");
-                break;
-            }
+        if (verdict.getInvalidCharacter() != IdentifierVerdict.NONE) {
+            errorCollector.addError(lineNumber, 
+                    String.format("Identifier '%s' contains invalid character '%c'", name, 
+                                  (char) verdict.getInvalidCharacter()), 
+                    "IDENTIFIER");
         }
         
         // Check for spaces
-        if (name.contains(" ")) {
+        if (verdict.containsSpace()) {
             errorCollector.addError(lineNumber, 
                     String.format("Identifier '%s' cannot contain spaces", name), 
                     "IDENTIFIER");
         }
         
         // Check for special characters
-        String specialChars = "-+*/";
-        for (char c : specialChars.toCharArray()) {
-            if (name.indexOf(c) >= 0) {
-                errorCollector.addError(lineNumber, 
-                        String.format("Identifier '%s' cannot contain special character '%c'", name, c), 
-                        "IDENTIFIER");
-                break;
-            }
+        if (verdict.getSpecialCharacter() != IdentifierVerdict.NONE) {
+            errorCollector.addError(lineNumber, 
+                    String.format("Identifier '%s' cannot contain special character '%c'", name, 
+                                  (char) verdict.getSpecialCharacter()), 
+                    "IDENTIFIER");
         }
         
         // Check if reserved word
-        if (ReservedWords.isReserved(name)) {
+        if (verdict.isReserved()) {
             errorCollector.addError(lineNumber, 
                     String.format("Identifier '%s' is a JavaScript reserved word and cannot be used", name), 
                     "IDENTIFIER");
         }
     }
 }
-
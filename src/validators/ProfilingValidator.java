@@ -0,0 +1,181 @@
+package validators;
+
+import ast.html.AttributeNode;
+import ast.html.DocumentNode;
+import ast.html.TagNode;
+import ast.html.TextNode;
+import ast.js.AssignmentNode;
+import ast.js.CallNode;
+import ast.js.ConstantNode;
+import ast.js.ExpressionNode;
+import ast.js.FunctionNode;
+import ast.js.IdentifierNode;
+import ast.js.ScriptNode;
+import ast.js.VariableNode;
+import errors.ErrorCollector;
+import profiling.JfrEvents;
+import profiling.ValidationProfile;
+import profiling.ValidatorRunEvent;
+import java.util.Set;
+
+/**
+ * Validator wrapper that measures the time, allocation and errors of every visit.
+ * Totals are kept in the wrapper, which is only visited by one thread at a
+ * time, and written once to the profile with {@link #recordInto(ValidationProfile)}
+ * or to a JFR event with {@link #commitEvent(String)}, so visits do not
+ * contend on shared state.
+ * 
+ * @author eduardo
+ */
+public class ProfilingValidator implements Validator {
+    private final Validator delegate;
+    private long nanos;
+    private long bytes;
+    private int visits;
+    private int errors;
+    private final ValidatorRunEvent event; // Spans from the first visit to commitEvent; null without a recording
+    
+    /**
+     * Wraps a validator.
+     * 
+     * @param delegate The validator to measure
+     */
+    public ProfilingValidator(Validator delegate) {
+        this.delegate = delegate;
+        this.event = JfrEvents.isRecorderInitialized() ? new ValidatorRunEvent() : null;
+    }
+    
+    /**
+     * Records the totals as stage "validator:&lt;rule id&gt;".
+     * 
+     * @param profile The profile to record into
+     */
+    public void recordInto(ValidationProfile profile) {
+        profile.record("validator:" + delegate.getRuleId(), nanos, bytes, visits);
+    }
+    
+    /**
+     * Emits a {@link ValidatorRunEvent} with the totals, if a JFR recording
+     * is active.
+     * 
+     * @param filePath Path of the validated file
+     */
+    public void commitEvent(String filePath) {
+        if (event != null && event.shouldCommit()) {
+            event.filePath = filePath;
+            event.ruleId = delegate.getRuleId();
+            event.nodeCount = visits;
+            event.errorCount = errors;
+            event.visitTime = nanos;
+            event.commit();
+        }
+    }
+    
+    @Override
+    public String getRuleId() {
+        return delegate.getRuleId();
+    }
+    
+    @Override
+    public boolean needsScriptNodes() {
+        return delegate.needsScriptNodes();
+    }
+    
+    @Override
+    public Set<Artifact<?>> getRequiredArtifacts() {
+        return delegate.getRequiredArtifacts();
+    }
+    
+    @Override
+    public void bind(ArtifactStore artifacts) {
+        delegate.bind(artifacts);
+    }
+    
+    @Override
+    public void visitDocument(DocumentNode node, ErrorCollector errorCollector) {
+        measure(Validator::visitDocument, node, errorCollector);
+    }
+    
+    @Override
+    public void visitTag(TagNode node, ErrorCollector errorCollector) {
+        measure(Validator::visitTag, node, errorCollector);
+    }
+    
+    @Override
+    public void visitAttribute(AttributeNode node, ErrorCollector errorCollector) {
+        measure(Validator::visitAttribute, node, errorCollector);
+    }
+    
+    @Override
+    public void visitText(TextNode node, ErrorCollector errorCollector) {
+        measure(Validator::visitText, node, errorCollector);
+    }
+    
+    @Override
+    public void visitScript(ScriptNode node, ErrorCollector errorCollector) {
+        measure(Validator::visitScript, node, errorCollector);
+    }
+    
+    @Override
+    public void visitFunction(FunctionNode node, ErrorCollector errorCollector) {
+        measure(Validator::visitFunction, node, errorCollector);
+    }
+    
+    @Override
+    public void visitVariable(VariableNode node, ErrorCollector errorCollector) {
+        measure(Validator::visitVariable, node, errorCollector);
+    }
+    
+    @Override
+    public void visitConstant(ConstantNode node, ErrorCollector errorCollector) {
+        measure(Validator::visitConstant, node, errorCollector);
+    }
+    
+    @Override
+    public void visitAssignment(AssignmentNode node, ErrorCollector errorCollector) {
+        measure(Validator::visitAssignment, node, errorCollector);
+    }
+    
+    @Override
+    public void visitExpression(ExpressionNode node, ErrorCollector errorCollector) {
+        measure(Validator::visitExpression, node, errorCollector);
+    }
+    
+    @Override
+    public void visitCall(CallNode node, ErrorCollector errorCollector) {
+        measure(Validator::visitCall, node, errorCollector);
+    }
+    
+    @Override
+    public void visitIdentifier(IdentifierNode node, ErrorCollector errorCollector) {
+        measure(Validator::visitIdentifier, node, errorCollector);
+    }
+    
+    /**
+     * Runs one visit of the delegate, adding its time, allocation and
+     * reported errors to the totals.
+     */
+    private <N> void measure(Visit<N> visit, N node, ErrorCollector errorCollector) {
+        if (visits == 0 && event != null) {
+            event.begin();
+        }
+        long startBytes = ValidationProfile.currentThreadAllocatedBytes();
+        int startErrors = errorCollector.getErrorCount();
+        long startNanos = System.nanoTime();
+        visit.apply(delegate, node, errorCollector);
+        nanos += System.nanoTime() - startNanos;
+        long endBytes = ValidationProfile.currentThreadAllocatedBytes();
+        bytes = bytes < 0 || startBytes < 0 || endBytes < 0 ? -1 : bytes + (endBytes - startBytes);
+        visits++;
+        errors += errorCollector.getErrorCount() - startErrors;
+    }
+    
+    /**
+     * A visit method of {@link Validator}, e.g. {@code Validator::visitTag}.
+     * Unbound, so the method references capture nothing and are not
+     * allocated per visit.
+     */
+    private interface Visit<N> {
+        void apply(Validator validator, N node, ErrorCollector errorCollector);
+    }
+}
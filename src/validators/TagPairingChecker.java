@@ -0,0 +1,142 @@
+package validators;
+
+import errors.ErrorCollector;
+import parser.HtmlTagNames;
+import parser.TagEventListener;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Checks that HTML tags are properly paired (Requirement #8).
+ * Runs on the parser's stream of opening and closing tags with a single
+ * stack, so it needs no AST and finishes in one O(n) pass. Reports:
+ * <ul>
+ *   <li>closing tags that do not match the innermost open tag,</li>
+ *   <li>closing tags with no open tag of that name (including closing tags of void elements),</li>
+ *   <li>tags that are never closed.</li>
+ * </ul>
+ * Void elements (br, img, input, ...) and self-closing tags are never pushed.
+ * 
+ * @author eduardo
+ */
+public class TagPairingChecker implements TagEventListener {
+    private final ErrorCollector errorCollector;
+    
+    // Stack of open tags
+    private String[] openNames;
+    private int[] openLines;
+    private int size;
+    
+    // Number of open tags per name, so stray closing tags are found without searching the stack
+    private final Map<String, int[]> openCounts;
+    
+    /**
+     * Creates a checker that reports to the given collector.
+     * 
+     * @param errorCollector The error collector to add errors to
+     */
+    public TagPairingChecker(ErrorCollector errorCollector) {
+        this.errorCollector = errorCollector;
+        this.openNames = new String[32];
+        this.openLines = new int[32];
+        this.size = 0;
+        this.openCounts = new HashMap<>();
+    }
+    
+    /**
+     * Gets the errors found so far.
+     * 
+     * @return The error collector the checker reports to
+     */
+    public ErrorCollector getErrors() {
+        return errorCollector;
+    }
+    
+    @Override
+    public void tagOpened(String tagName, boolean selfClosing, int lineNumber) {
+        if (selfClosing || !isElement(tagName) || HtmlTagNames.isVoidElement(tagName)) {
+            return;
+        }
+        if (size == openNames.length) {
+            openNames = Arrays.copyOf(openNames, size * 2);
+            openLines = Arrays.copyOf(openLines, size * 2);
+        }
+        openNames[size] = tagName;
+        openLines[size] = lineNumber;
+        size++;
+        openCount(tagName)[0]++;
+    }
+    
+    @Override
+    public void tagClosed(String tagName, int lineNumber) {
+        if (!isElement(tagName)) {
+            return;
+        }
+        if (HtmlTagNames.isVoidElement(tagName)) {
+            errorCollector.addError(lineNumber, 
+                    String.format("Closing tag </%s> is not allowed: <%s> is a void element", tagName, tagName), 
+                    "HTML_STRUCTURE");
+            return;
+        }
+        int[] count = openCounts.get(tagName);
+        if (count == null || count[0] == 0) {
+            errorCollector.addError(lineNumber, 
+                    String.format("Closing tag </%s> has no matching opening tag", tagName), 
+                    "HTML_STRUCTURE");
+            return;
+        }
+        
+        if (!openNames[size - 1].equals(tagName)) {
+            errorCollector.addError(lineNumber, 
+                    String.format("Closing tag </%s> does not match open tag <%s> (opened at line %d)", 
+                                  tagName, openNames[size - 1], openLines[size - 1]), 
+                    "HTML_STRUCTURE");
+            pop();
+            // Tags between the innermost one and the match are left unclosed
+            while (!openNames[size - 1].equals(tagName)) {
+                reportUnclosed(size - 1);
+                pop();
+            }
+        }
+        pop();
+    }
+    
+    @Override
+    public void endOfInput() {
+        for (int i = 0; i < size; i++) {
+            reportUnclosed(i);
+        }
+        while (size > 0) {
+            pop();
+        }
+    }
+    
+    private void reportUnclosed(int index) {
+        errorCollector.addError(openLines[index], 
+                String.format("Tag <%s> is never closed", openNames[index]), 
+                "HTML_STRUCTURE");
+    }
+    
+    private void pop() {
+        size--;
+        openCount(openNames[size])[0]--;
+        openNames[size] = null;
+    }
+    
+    private int[] openCount(String tagName) {
+        int[] count = openCounts.get(tagName);
+        if (count == null) {
+            count = new int[1];
+            openCounts.put(tagName, count);
+        }
+        return count;
+    }
+    
+    /**
+     * Checks if a tag name is an element, not a comment or other markup declaration.
+     */
+    private static boolean isElement(String tagName) {
+        return !tagName.isEmpty() && tagName.charAt(0) != '!' && tagName.charAt(0) != '?';
+    }
+}
@@ -0,0 +1,23 @@
+package validators;
+
+/**
+ * Strategies the engine can use to run the validators.
+ * 
+ * @author eduardo
+ */
+public enum ValidationMode {
+    /**
+     * Walk the AST once on the calling thread, sending each node to every
+     * validator (default).
+     */
+    FUSED,
+    
+    /**
+     * Run validators as a dependency graph on an executor: shared artifacts are
+     * computed once when first needed, and each validator runs as its own task
+     * as soon as its artifacts are ready. Every validator reports into its own
+     * buffer; buffers are merged in validator order, so error numbers are the
+     * same as in FUSED mode.
+     */
+    PARALLEL
+}
@@ -0,0 +1,153 @@
+package validators;
+
+import ast.AstWalker;
+import ast.html.DocumentNode;
+import errors.ErrorCollector;
+import utils.CancellationToken;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs validators as a dependency graph on an executor.
+ * Artifacts are nodes that depend on other artifacts; validators depend on the
+ * artifacts they require. Each artifact needed by an enabled validator is
+ * computed once, as soon as its own dependencies are ready, and each validator
+ * starts as soon as its artifacts are ready, so independent work runs in parallel.
+ * Errors are merged in validator order, as in the fused single-walk mode.
+ * 
+ * @author eduardo
+ */
+public class ValidationScheduler {
+    private final List<Validator> validators;
+    private final ArtifactStore artifacts;
+    private long budgetNanos; // 0 means no budget
+    
+    /**
+     * Creates a scheduler.
+     * 
+     * @param validators Validators in reporting order
+     * @param artifacts Store with a producer for every required artifact
+     */
+    public ValidationScheduler(List<Validator> validators, ArtifactStore artifacts) {
+        this.validators = new ArrayList<>(validators);
+        this.artifacts = artifacts;
+    }
+    
+    /**
+     * Sets the time each validator may run once it has started. A validator
+     * that runs out stops, keeps the errors found so far and reports a
+     * timeout diagnostic.
+     * 
+     * @param budgetMillis Budget in milliseconds, or 0 for no budget
+     */
+    public void setValidatorBudget(long budgetMillis) {
+        this.budgetNanos = budgetMillis * 1_000_000L;
+    }
+    
+    /**
+     * Computes the required artifacts and runs every validator on the executor.
+     * Once the collector's error limit is reached, running validators stop and
+     * validators that have not started are skipped.
+     * 
+     * @param document The root document node of the AST
+     * @param errorCollector The error collector to add errors to
+     * @param executor Executor that runs artifact and validator tasks
+     * @throws IllegalStateException If a required artifact has no producer or dependencies form a cycle
+     */
+    public void validate(DocumentNode document, ErrorCollector errorCollector, Executor executor) {
+        Map<Artifact<?>, CompletableFuture<Void>> artifactTasks = new HashMap<>();
+        CompletableFuture<?>[] validatorTasks = new CompletableFuture<?>[validators.size()];
+        ErrorCollector[] buffers = new ErrorCollector[validators.size()];
+        CancellationToken cancellation = errorCollector.getCancellationToken();
+        
+        for (int i = 0; i < validators.size(); i++) {
+            Validator validator = validators.get(i);
+            CancellationToken token = budgetNanos > 0 ? new CancellationToken(cancellation) : cancellation;
+            ErrorCollector buffer = errorCollector.createBuffer(token);
+            buffers[i] = buffer;
+            CompletableFuture<Void> ready = whenReady(validator.getRequiredArtifacts(), artifactTasks, 
+                                                      new HashSet<>(), executor);
+            validatorTasks[i] = ready.thenRunAsync(() -> {
+                if (CancellationToken.isCancelled(cancellation)) {
+                    return;
+                }
+                validator.bind(artifacts);
+                if (budgetNanos > 0) {
+                    token.setDeadline(System.nanoTime() + budgetNanos);
+                }
+                AstWalker.walk(document, validator, buffer, token);
+                if (token != cancellation && token.isTimedOut()) {
+                    ValidatorDispatcher.reportTimeout(validator, document, buffer, budgetNanos);
+                }
+            }, executor);
+        }
+        
+        try {
+            CompletableFuture.allOf(validatorTasks).join();
+        } catch (CompletionException e) {
+            // Rethrow the task's own failure instead of the wrapper
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof java.lang.Error) {
+                throw (java.lang.Error) e.getCause();
+            }
+            throw e;
+        }
+        
+        for (ErrorCollector buffer : buffers) {
+            errorCollector.addAll(buffer);
+        }
+    }
+    
+    /**
+     * Gets a future that completes once all the given artifacts are computed,
+     * scheduling each artifact (after its own dependencies) the first time it is needed.
+     * 
+     * @param required Artifacts to wait for
+     * @param artifactTasks Tasks already scheduled, by artifact
+     * @param path Artifacts on the current dependency path, for cycle detection
+     * @param executor Executor for artifact tasks
+     */
+    private CompletableFuture<Void> whenReady(Set<Artifact<?>> required, 
+                                              Map<Artifact<?>, CompletableFuture<Void>> artifactTasks,
+                                              Set<Artifact<?>> path, Executor executor) {
+        if (required.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(required.size());
+        for (Artifact<?> artifact : required) {
+            tasks.add(schedule(artifact, artifactTasks, path, executor));
+        }
+        return CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]));
+    }
+    
+    private CompletableFuture<Void> schedule(Artifact<?> artifact, 
+                                             Map<Artifact<?>, CompletableFuture<Void>> artifactTasks,
+                                             Set<Artifact<?>> path, Executor executor) {
+        CompletableFuture<Void> task = artifactTasks.get(artifact);
+        if (task != null) {
+            return task;
+        }
+        if (!path.add(artifact)) {
+            throw new IllegalStateException("Artifact dependency cycle at: " + artifact);
+        }
+        if (!artifacts.isRegistered(artifact)) {
+            throw new IllegalStateException("No producer registered for artifact: " + artifact);
+        }
+        
+        CompletableFuture<Void> dependencies = whenReady(artifacts.getDependencies(artifact), 
+                                                         artifactTasks, path, executor);
+        task = dependencies.thenRunAsync(() -> artifacts.get(artifact), executor);
+        artifactTasks.put(artifact, task);
+        path.remove(artifact);
+        return task;
+    }
+}
@@ -1,21 +1,67 @@
 package validators;
 
+import ast.AstVisitor;
+import ast.AstWalker;
 import ast.html.DocumentNode;
 import errors.ErrorCollector;
+import java.util.Collections;
+import java.util.Set;
 
 /**
  * Base interface for all validators.
- * Each validator traverses the AST and reports errors to the ErrorCollector.
+ * Each validator is a visitor: it overrides the visit methods of the nodes its
+ * rule inspects and reports errors to the ErrorCollector passed as context.
+ * Validators do not walk the tree themselves; the engine walks it once for all
+ * of them (see {@link ValidatorDispatcher}).
  * 
  * @author eduardo
  */
-public interface Validator {
+public interface Validator extends AstVisitor<ErrorCollector> {
     /**
-     * Validates the document and collects errors.
+     * Gets the identifier used to enable or disable this rule.
+     * 
+     * @return Rule identifier (e.g., "identifier", "html-structure")
+     */
+    String getRuleId();
+    
+    /**
+     * Checks if this validator inspects JavaScript nodes.
+     * When no enabled validator does, the parser can skip script bodies entirely.
+     * 
+     * @return true if the validator needs ScriptNode contents, false otherwise
+     */
+    default boolean needsScriptNodes() {
+        return true;
+    }
+    
+    /**
+     * Gets the shared artifacts this validator reads.
+     * The engine computes each one once, only if some enabled validator requires it.
+     * 
+     * @return Required artifacts (empty by default)
+     */
+    default Set<Artifact<?>> getRequiredArtifacts() {
+        return Collections.emptySet();
+    }
+    
+    /**
+     * Gives the validator access to its required artifacts.
+     * Called once before validation, after every required artifact is available.
+     * 
+     * @param artifacts Store holding the required artifacts
+     */
+    default void bind(ArtifactStore artifacts) {
+    }
+    
+    /**
+     * Validates the document on its own and collects errors.
+     * Walks the tree for this validator only; use {@link ValidatorDispatcher}
+     * to run several validators in one walk.
      * 
      * @param document The root document node of the AST
      * @param errorCollector The error collector to add errors to
      */
-    void validate(DocumentNode document, ErrorCollector errorCollector);
+    default void validate(DocumentNode document, ErrorCollector errorCollector) {
+        AstWalker.walk(document, this, errorCollector);
+    }
 }
-
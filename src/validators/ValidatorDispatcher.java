@@ -0,0 +1,260 @@
+package validators;
+
+import ast.AstVisitor;
+import ast.AstWalker;
+import ast.html.AttributeNode;
+import ast.html.DocumentNode;
+import ast.html.TagNode;
+import ast.html.TextNode;
+import ast.js.AssignmentNode;
+import ast.js.CallNode;
+import ast.js.ConstantNode;
+import ast.js.ExpressionNode;
+import ast.js.FunctionNode;
+import ast.js.IdentifierNode;
+import ast.js.ScriptNode;
+import ast.js.VariableNode;
+import errors.ErrorCollector;
+import utils.CancellationToken;
+import java.util.List;
+
+/**
+ * Runs several validators in a single walk of the document.
+ * Each node is sent to every validator in order; each validator reports into
+ * its own buffer, and the buffers are merged in validator order afterwards so
+ * error numbers match running the validators one after another.
+ * 
+ * With a time budget, each validator polls its own token, and the time it
+ * spends in its visits is charged to it alone; once the budget is used up the
+ * validator receives no more nodes and its buffer gets a timeout diagnostic,
+ * while the other validators continue.
+ * 
+ * @author eduardo
+ */
+public class ValidatorDispatcher implements AstVisitor<Void> {
+    private final Validator[] validators;
+    private final ErrorCollector[] buffers;
+    private long budgetNanos; // 0 means no budget
+    private CancellationToken[] tokens; // Per-validator tokens, null without a budget
+    private long[] remainingNanos;
+    private long visitStart;
+    
+    /**
+     * Creates a dispatcher for the given validators.
+     * 
+     * @param validators Validators in reporting order
+     */
+    public ValidatorDispatcher(List<Validator> validators) {
+        this.validators = validators.toArray(new Validator[0]);
+        this.buffers = new ErrorCollector[this.validators.length];
+    }
+    
+    /**
+     * Sets the time each validator may spend on the document.
+     * 
+     * @param budgetMillis Budget in milliseconds, or 0 for no budget
+     */
+    public void setValidatorBudget(long budgetMillis) {
+        this.budgetNanos = budgetMillis * 1_000_000L;
+    }
+    
+    /**
+     * Walks the document once and reports the errors of every validator.
+     * The walk stops early if the collector's error limit is reached.
+     * 
+     * @param document The root document node of the AST
+     * @param errorCollector The error collector to add errors to
+     */
+    public void validate(DocumentNode document, ErrorCollector errorCollector) {
+        CancellationToken cancellation = errorCollector.getCancellationToken();
+        if (budgetNanos > 0) {
+            tokens = new CancellationToken[validators.length];
+            remainingNanos = new long[validators.length];
+            for (int i = 0; i < buffers.length; i++) {
+                tokens[i] = new CancellationToken(cancellation);
+                remainingNanos[i] = budgetNanos;
+                buffers[i] = errorCollector.createBuffer(tokens[i]);
+            }
+        } else {
+            for (int i = 0; i < buffers.length; i++) {
+                buffers[i] = errorCollector.createBuffer();
+            }
+        }
+        AstWalker.walk(document, this, null, cancellation);
+        for (int i = 0; i < buffers.length; i++) {
+            if (tokens != null && tokens[i].isTimedOut()) {
+                reportTimeout(validators[i], document, buffers[i], budgetNanos);
+            }
+            errorCollector.addAll(buffers[i]);
+        }
+    }
+    
+    /**
+     * Reports that a validator stopped early because its time budget ran out.
+     * 
+     * @param validator The validator that timed out
+     * @param document The root document node, whose line the diagnostic is attached to
+     * @param errorCollector The validator's error buffer
+     * @param budgetNanos The validator's budget
+     */
+    static void reportTimeout(Validator validator, DocumentNode document, ErrorCollector errorCollector, 
+                              long budgetNanos) {
+        errorCollector.addError(document.getLineNumber(), 
+                String.format("Rule '%s' exceeded its time budget of %d ms; its results are partial", 
+                              validator.getRuleId(), budgetNanos / 1_000_000L), 
+                "TIMEOUT");
+    }
+    
+    /**
+     * Checks if a validator still has budget and, if so, starts timing its visit.
+     * Expiry is decided from the validator's own remaining budget; its token's
+     * deadline is moved to when that budget runs out before the token is asked,
+     * so time spent between its visits (in other validators or in producing
+     * artifacts) is never charged to it, and loops inside the visit stop in time.
+     */
+    private boolean startVisit(int i) {
+        if (tokens == null) {
+            return true;
+        }
+        if (remainingNanos[i] <= 0) {
+            return false;
+        }
+        visitStart = System.nanoTime();
+        tokens[i].setDeadline(visitStart + remainingNanos[i]);
+        // Still cancelled if the whole validation was (error limit, file timeout)
+        return !tokens[i].isCancelled();
+    }
+    
+    /**
+     * Charges the time of the visit to the validator.
+     */
+    private void endVisit(int i) {
+        if (tokens == null) {
+            return;
+        }
+        remainingNanos[i] -= System.nanoTime() - visitStart;
+        if (remainingNanos[i] <= 0) {
+            tokens[i].expire();
+        }
+    }
+    
+    @Override
+    public void visitDocument(DocumentNode node, Void context) {
+        for (int i = 0; i < validators.length; i++) {
+            if (startVisit(i)) {
+                validators[i].visitDocument(node, buffers[i]);
+                endVisit(i);
+            }
+        }
+    }
+    
+    @Override
+    public void visitTag(TagNode node, Void context) {
+        for (int i = 0; i < validators.length; i++) {
+            if (startVisit(i)) {
+                validators[i].visitTag(node, buffers[i]);
+                endVisit(i);
+            }
+        }
+    }
+    
+    @Override
+    public void visitAttribute(AttributeNode node, Void context) {
+        for (int i = 0; i < validators.length; i++) {
+            if (startVisit(i)) {
+                validators[i].visitAttribute(node, buffers[i]);
+                endVisit(i);
+            }
+        }
+    }
+    
+    @Override
+    public void visitText(TextNode node, Void context) {
+        for (int i = 0; i < validators.length; i++) {
+            if (startVisit(i)) {
+                validators[i].visitText(node, buffers[i]);
+                endVisit(i);
+            }
+        }
+    }
+    
+    @Override
+    public void visitScript(ScriptNode node, Void context) {
+        for (int i = 0; i < validators.length; i++) {
+            if (startVisit(i)) {
+                validators[i].visitScript(node, buffers[i]);
+                endVisit(i);
+            }
+        }
+    }
+    
+    @Override
+    public void visitFunction(FunctionNode node, Void context) {
+        for (int i = 0; i < validators.length; i++) {
+            if (startVisit(i)) {
+                validators[i].visitFunction(node, buffers[i]);
+                endVisit(i);
+            }
+        }
+    }
+    
+    @Override
+    public void visitVariable(VariableNode node, Void context) {
+        for (int i = 0; i < validators.length; i++) {
+            if (startVisit(i)) {
+                validators[i].visitVariable(node, buffers[i]);
+                endVisit(i);
+            }
+        }
+    }
+    
+    @Override
+    public void visitConstant(ConstantNode node, Void context) {
+        for (int i = 0; i < validators.length; i++) {
+            if (startVisit(i)) {
+                validators[i].visitConstant(node, buffers[i]);
+                endVisit(i);
+            }
+        }
+    }
+    
+    @Override
+    public void visitAssignment(AssignmentNode node, Void context) {
+        for (int i = 0; i < validators.length; i++) {
+            if (startVisit(i)) {
+                validators[i].visitAssignment(node, buffers[i]);
+                endVisit(i);
+            }
+        }
+    }
+    
+    @Override
+    public void visitExpression(ExpressionNode node, Void context) {
+        for (int i = 0; i < validators.length; i++) {
+            if (startVisit(i)) {
+                validators[i].visitExpression(node, buffers[i]);
+                endVisit(i);
+            }
+        }
+    }
+    
+    @Override
+    public void visitCall(CallNode node, Void context) {
+        for (int i = 0; i < validators.length; i++) {
+            if (startVisit(i)) {
+                validators[i].visitCall(node, buffers[i]);
+                endVisit(i);
+            }
+        }
+    }
+    
+    @Override
+    public void visitIdentifier(IdentifierNode node, Void context) {
+        for (int i = 0; i < validators.length; i++) {
+            if (startVisit(i)) {
+                validators[i].visitIdentifier(node, buffers[i]);
+                endVisit(i);
+            }
+        }
+    }
+}
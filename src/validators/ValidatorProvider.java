@@ -0,0 +1,71 @@
+package validators;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Service provider for a validation rule.
+ * Describes the rule without creating it, so the engine only instantiates
+ * the validators that are enabled. Built-in rules are listed by
+ * {@link ValidatorRegistry}; additional rules are discovered with
+ * {@link java.util.ServiceLoader} by listing the provider class in
+ * {@code META-INF/services/validators.ValidatorProvider} on the classpath.
+ * Implementations need a public no-argument constructor.
+ * 
+ * @author eduardo
+ */
+public interface ValidatorProvider {
+    /**
+     * Gets the identifier used to enable or disable the rule.
+     * Must match {@link Validator#getRuleId()} of the created validator.
+     * 
+     * @return Rule identifier (e.g., "identifier", "html-structure")
+     */
+    String getRuleId();
+    
+    /**
+     * Gets the position of the rule in the report. Rules with lower values
+     * report their errors first; built-in rules use their requirement number.
+     * 
+     * @return Reporting order (100 by default, after the built-in rules)
+     */
+    default int getOrder() {
+        return 100;
+    }
+    
+    /**
+     * Gets the rough cost of running the rule.
+     * 
+     * @return Cost class (LOW by default)
+     */
+    default CostClass getCostClass() {
+        return CostClass.LOW;
+    }
+    
+    /**
+     * Gets the shared artifacts the rule's validator reads.
+     * Should match the validator's {@link Validator#getRequiredArtifacts()}.
+     * 
+     * @return Required artifacts (empty by default)
+     */
+    default Set<Artifact<?>> getRequiredArtifacts() {
+        return Collections.emptySet();
+    }
+    
+    /**
+     * Checks if the rule inspects JavaScript nodes.
+     * Should match the validator's {@link Validator#needsScriptNodes()}.
+     * 
+     * @return true if the validator needs ScriptNode contents (default), false otherwise
+     */
+    default boolean needsScriptNodes() {
+        return true;
+    }
+    
+    /**
+     * Creates a new validator for one document.
+     * 
+     * @return A new validator instance
+     */
+    Validator create();
+}
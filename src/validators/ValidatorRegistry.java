@@ -0,0 +1,168 @@
+package validators;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Registry of the available validation rules.
+ * Holds the built-in rules plus every {@link ValidatorProvider} found with
+ * {@link ServiceLoader}. Providers are only descriptions; validators are
+ * created for the enabled rules alone.
+ * 
+ * @author eduardo
+ */
+public final class ValidatorRegistry {
+    private static volatile ValidatorRegistry defaultRegistry;
+    
+    private final List<ValidatorProvider> providers;
+    
+    /**
+     * Creates a registry with the built-in rules and the given additional providers.
+     * 
+     * @param additionalProviders Providers of rules that are not built in
+     * @throws IllegalStateException If two providers declare the same rule ID
+     */
+    public ValidatorRegistry(Iterable<ValidatorProvider> additionalProviders) {
+        List<ValidatorProvider> all = new ArrayList<>(builtInProviders());
+        for (ValidatorProvider provider : additionalProviders) {
+            all.add(provider);
+        }
+        
+        Map<String, ValidatorProvider> byRuleId = new HashMap<>();
+        for (ValidatorProvider provider : all) {
+            ValidatorProvider previous = byRuleId.put(provider.getRuleId(), provider);
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate rule id '" + provider.getRuleId() + "' declared by "
+                        + previous.getClass().getName() + " and " + provider.getClass().getName());
+            }
+        }
+        
+        // Stable sort keeps discovery order among rules with the same order value
+        all.sort((p1, p2) -> Integer.compare(p1.getOrder(), p2.getOrder()));
+        this.providers = Collections.unmodifiableList(all);
+    }
+    
+    /**
+     * Gets the registry of the built-in rules and the rules found on the
+     * classpath. Discovery runs once, the first time this is called.
+     * 
+     * @return The default registry
+     */
+    public static ValidatorRegistry getDefault() {
+        ValidatorRegistry registry = defaultRegistry;
+        if (registry == null) {
+            synchronized (ValidatorRegistry.class) {
+                registry = defaultRegistry;
+                if (registry == null) {
+                    registry = new ValidatorRegistry(ServiceLoader.load(ValidatorProvider.class));
+                    defaultRegistry = registry;
+                }
+            }
+        }
+        return registry;
+    }
+    
+    /**
+     * Gets every available rule in reporting order.
+     * 
+     * @return Providers of all rules
+     */
+    public List<ValidatorProvider> getProviders() {
+        return providers;
+    }
+    
+    /**
+     * Creates the validators of the enabled rules, in reporting order.
+     * 
+     * @param enabledRules Rule identifiers to run, or null to run every rule
+     * @return New validators for the enabled rules
+     * @throws IllegalArgumentException If a rule identifier is unknown
+     */
+    public List<Validator> createValidators(Set<String> enabledRules) {
+        Set<String> unknownRules = enabledRules == null ? Collections.emptySet() : new HashSet<>(enabledRules);
+        List<Validator> validators = new ArrayList<>();
+        for (ValidatorProvider provider : providers) {
+            if (enabledRules == null || enabledRules.contains(provider.getRuleId())) {
+                validators.add(provider.create());
+                unknownRules.remove(provider.getRuleId());
+            }
+        }
+        if (!unknownRules.isEmpty()) {
+            throw new IllegalArgumentException("Unknown rule(s): " + String.join(", ", unknownRules));
+        }
+        return validators;
+    }
+    
+    /**
+     * Gets the providers of the rules shipped with the engine (Requirements #2 to #8).
+     */
+    private static List<ValidatorProvider> builtInProviders() {
+        return Arrays.asList(
+            new BuiltIn(IdentifierValidator.RULE_ID, 2, CostClass.MEDIUM, IdentifierValidator::new),
+            new BuiltIn(ConstantValidator.RULE_ID, 3, CostClass.MEDIUM, ConstantValidator::new),
+            new BuiltIn(AssignmentValidator.RULE_ID, 4, CostClass.MEDIUM, AssignmentValidator::new),
+            new BuiltIn(FunctionValidator.RULE_ID, 5, CostClass.LOW, FunctionValidator::new),
+            new BuiltIn(DataInputValidator.RULE_ID, 6, CostClass.LOW, DataInputValidator::new),
+            new BuiltIn(DataOutputValidator.RULE_ID, 7, CostClass.LOW, DataOutputValidator::new),
+            new BuiltIn(HtmlStructureValidator.RULE_ID, 8, CostClass.LOW, HtmlStructureValidator::new)
+        );
+    }
+    
+    /**
+     * Provider of a built-in rule.
+     * The required artifacts and the need for script nodes are asked of a
+     * validator, so the listing always matches what the engine schedules;
+     * built-in validators are cheap to create and hold no state until bound.
+     */
+    private static final class BuiltIn implements ValidatorProvider {
+        private final String ruleId;
+        private final int order;
+        private final CostClass costClass;
+        private final Supplier<Validator> factory;
+        
+        BuiltIn(String ruleId, int order, CostClass costClass, Supplier<Validator> factory) {
+            this.ruleId = ruleId;
+            this.order = order;
+            this.costClass = costClass;
+            this.factory = factory;
+        }
+        
+        @Override
+        public String getRuleId() {
+            return ruleId;
+        }
+        
+        @Override
+        public int getOrder() {
+            return order;
+        }
+        
+        @Override
+        public CostClass getCostClass() {
+            return costClass;
+        }
+        
+        @Override
+        public Set<Artifact<?>> getRequiredArtifacts() {
+            return factory.get().getRequiredArtifacts();
+        }
+        
+        @Override
+        public boolean needsScriptNodes() {
+            return factory.get().needsScriptNodes();
+        }
+        
+        @Override
+        public Validator create() {
+            return factory.get();
+        }
+    }
+}